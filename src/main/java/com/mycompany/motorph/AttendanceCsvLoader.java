@@ -0,0 +1,499 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parallel loader for the attendance CSV.
+ * The file is memory-mapped and split into chunks at line boundaries. Chunks are
+ * parsed concurrently straight from the mapped bytes and merged in file order,
+ * so line numbers in error messages match a sequential read.
+ */
+public class AttendanceCsvLoader {
+    private static final int FIELD_COUNT = 6;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;          // 1 MB
+    private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE; // Limit of a single mapping
+    private static final int STREAM_BATCH_SIZE = 1024;           // Lines read at a time by streams
+
+    private AttendanceCsvLoader() {
+    }
+
+    /**
+     * Loads an attendance CSV (with a header row) into a store.
+     * Invalid rows are reported on System.err and skipped.
+     * @param filePath Path to the CSV file.
+     * @return The loaded rows; empty if the file has no valid rows.
+     */
+    public static AttendanceStore load(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = nextLineStart(channel, 0, size); // Skip header row
+            return parse(channel, dataStart, size, 2).rows().build(); // Line 1 is the header
+        }
+    }
+
+    /**
+     * Streams the rows of an attendance CSV (with a header row) without loading the file.
+     * Lines are read in batches of {@value #STREAM_BATCH_SIZE} as the stream is consumed,
+     * so memory use does not depend on the file size. Invalid rows are reported on
+     * System.err and skipped, as by {@link #load}.
+     * A parallel stream splits into at most one reader per worker thread, each taking the
+     * next batch of lines when it runs out; such a stream does not keep file order.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     * @param filePath Path to the CSV file.
+     */
+    public static Stream<AttendanceRecord> stream(String filePath) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8);
+        try {
+            reader.readLine(); // Skip header row
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        LineSource source = new LineSource(reader, ForkJoinPool.getCommonPoolParallelism());
+        return StreamSupport.stream(new RecordSpliterator(source), false)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    /**
+     * Rows parsed from a byte range and the number of lines it held.
+     */
+    record Parsed(AttendanceStore.Builder rows, int lineCount) {
+    }
+
+    /**
+     * Parses the lines in [start, end) of an attendance CSV in parallel.
+     * Invalid rows are reported on System.err and skipped.
+     * @param firstLine Line number of the line starting at start, used in messages.
+     */
+    static Parsed parse(FileChannel channel, long start, long end, int firstLine) throws IOException {
+        long[] bounds = splitAtLines(channel, start, end);
+        int chunkCount = bounds.length - 1;
+
+        List<Chunk> chunks;
+        try {
+            chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1]))
+                .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        int line = firstLine;
+        for (Chunk chunk : chunks) {
+            chunk.report(line);
+            builder.addAll(chunk.builder);
+            line += chunk.lineCount;
+        }
+        return new Parsed(builder, line - firstLine);
+    }
+
+    /**
+     * Splits [start, size) into chunks that each end just after a newline.
+     * @return Chunk boundaries, starting with start and ending with size.
+     */
+    private static long[] splitAtLines(FileChannel channel, long start, long size) throws IOException {
+        long length = size - start;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long chunkCount = Math.max(1, Math.min(parallelism * 4L, length / MIN_CHUNK_SIZE));
+        chunkCount = Math.max(chunkCount, (length + MAX_CHUNK_SIZE / 2 - 1) / (MAX_CHUNK_SIZE / 2));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        for (long i = 1; i < chunkCount; i++) {
+            long target = Math.max(start + length * i / chunkCount, bounds.get(bounds.size() - 1));
+            long bound = nextLineStart(channel, target, size);
+            if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+                bounds.add(bound);
+            }
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * @return Position just after the first newline at or after position, or size if there is none.
+     */
+    static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Chunk parseChunk(FileChannel channel, long start, long end) {
+        Chunk chunk = new Chunk();
+        if (end <= start) {
+            return chunk;
+        }
+
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] line = new byte[256];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int length = lineEnd - lineStart;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            buffer.get(lineStart, line, 0, length);
+            chunk.parseLine(line, length);
+
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Rows and diagnostics of one chunk. Messages are kept with their line offset
+     * and printed once the chunk's first line number is known.
+     */
+    private static final class Chunk {
+        private final AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        private final EmployeeKeys employeeKeys = new EmployeeKeys();
+        private final List<Message> messages = new ArrayList<>();
+        private final int[] fieldStart = new int[FIELD_COUNT];
+        private final int[] fieldEnd = new int[FIELD_COUNT];
+        private int lineCount;
+
+        void parseLine(byte[] line, int length) {
+            int lineIndex = lineCount++;
+
+            if (countFields(line, length) < FIELD_COUNT) {
+                messages.add(new Message(lineIndex, "Skipping incomplete record at line ", ""));
+                return;
+            }
+
+            int epochDay = AttendanceFieldParser.parseEpochDay(line, fieldStart[3], fieldEnd[3]);
+            if (epochDay == AttendanceFieldParser.INVALID_DATE) {
+                reportUnparsed(line, 3, "Could not parse date: ");
+            }
+            int minuteIn = AttendanceFieldParser.parseMinuteOfDay(line, fieldStart[4], fieldEnd[4]);
+            if (minuteIn == AttendanceFieldParser.INVALID_TIME) {
+                reportUnparsed(line, 4, "Could not parse time: ");
+            }
+            int minuteOut = AttendanceFieldParser.parseMinuteOfDay(line, fieldStart[5], fieldEnd[5]);
+            if (minuteOut == AttendanceFieldParser.INVALID_TIME) {
+                reportUnparsed(line, 5, "Could not parse time: ");
+            }
+
+            if (epochDay != AttendanceFieldParser.INVALID_DATE
+                    && minuteIn != AttendanceFieldParser.INVALID_TIME
+                    && minuteOut != AttendanceFieldParser.INVALID_TIME) {
+                if (!AttendanceRecord.isValidTimeSequence(minuteIn, minuteOut)) {
+                    messages.add(new Message(lineIndex, "Error processing record at line ",
+                        ": " + AttendanceRecord.TIME_SEQUENCE_ERROR));
+                    return;
+                }
+                int key = employeeKeys.keyOf(line, fieldStart[0], fieldEnd[0], this);
+                builder.addRow(key, epochDay, minuteIn, minuteOut);
+            }
+        }
+
+        private void reportUnparsed(byte[] line, int index, String message) {
+            if (fieldEnd[index] > fieldStart[index]) {
+                messages.add(new Message(-1, message + cleanField(line, index), ""));
+            }
+        }
+
+        // Registers a newly seen employee; only called once per ID per chunk
+        int addEmployee(byte[] line) {
+            String id = cleanField(line, 0);
+            String name = cleanField(line, 2) + " " + cleanField(line, 1);
+            return builder.addEmployee(id, name);
+        }
+
+        /**
+         * Records field boundaries and returns the field count the way
+         * String.split(",") would, ignoring trailing empty fields.
+         */
+        private int countFields(byte[] line, int length) {
+            int count = 0;
+            int nonEmptyCount = 0;
+            int start = 0;
+            for (int i = 0; i <= length; i++) {
+                if (i == length || line[i] == ',') {
+                    if (count < FIELD_COUNT) {
+                        fieldStart[count] = start;
+                        fieldEnd[count] = i;
+                    }
+                    count++;
+                    if (i > start) {
+                        nonEmptyCount = count;
+                    }
+                    start = i + 1;
+                }
+            }
+            return length == 0 ? 1 : nonEmptyCount;
+        }
+
+        private String field(byte[] line, int index) {
+            return new String(line, fieldStart[index], fieldEnd[index] - fieldStart[index], StandardCharsets.UTF_8);
+        }
+
+        private String cleanField(byte[] line, int index) {
+            return field(line, index).replace("\"", "").trim();
+        }
+
+        void report(int firstLine) {
+            for (Message message : messages) {
+                System.err.println(message.format(firstLine));
+            }
+        }
+    }
+
+    /**
+     * A diagnostic for a line of a chunk. A line index of -1 means the message carries no line number.
+     */
+    private record Message(int lineIndex, String prefix, String suffix) {
+        String format(int firstLine) {
+            return lineIndex < 0 ? prefix : prefix + (firstLine + lineIndex) + suffix;
+        }
+    }
+
+    /**
+     * A reader shared by the spliterators of one stream, handing out batches of lines.
+     */
+    private static final class LineSource {
+        private final BufferedReader reader;
+        private int lineNumber = 1; // Line 1 is the header
+        private int splitsLeft;
+
+        LineSource(BufferedReader reader, int maxSplits) {
+            this.reader = reader;
+            this.splitsLeft = maxSplits;
+        }
+
+        /**
+         * Reads up to lines.length lines.
+         * @return Line number of the first line read; lines after the last one read are null.
+         */
+        synchronized int read(String[] lines) {
+            int first = lineNumber + 1;
+            try {
+                for (int i = 0; i < lines.length; i++) {
+                    lines[i] = reader.readLine();
+                    if (lines[i] != null) {
+                        lineNumber++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return first;
+        }
+
+        synchronized boolean trySplit() {
+            return splitsLeft-- > 0;
+        }
+    }
+
+    /**
+     * Parses the lines of a batch as they are consumed, reading another batch when done.
+     */
+    private static final class RecordSpliterator implements Spliterator<AttendanceRecord> {
+        private final LineSource source;
+        private final String[] lines = new String[STREAM_BATCH_SIZE];
+        private int firstLine;
+        private int position = lines.length;
+
+        RecordSpliterator(LineSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super AttendanceRecord> action) {
+            while (true) {
+                if (position == lines.length) {
+                    firstLine = source.read(lines);
+                    position = 0;
+                }
+                String line = lines[position];
+                if (line == null) {
+                    return false;
+                }
+                lines[position] = null;
+                AttendanceRecord record = parseRecord(line, firstLine + position++);
+                if (record != null) {
+                    action.accept(record);
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<AttendanceRecord> trySplit() {
+            return source.trySplit() ? new RecordSpliterator(source) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * Parses one data line the way the loader does.
+     * @return The record, or null if the line was reported and skipped.
+     */
+    private static AttendanceRecord parseRecord(String line, int lineNumber) {
+        String[] values = line.split(",");
+        if (values.length < FIELD_COUNT) {
+            System.err.println("Skipping incomplete record at line " + lineNumber);
+            return null;
+        }
+
+        int epochDay = AttendanceFieldParser.parseEpochDay(values[3]);
+        if (epochDay == AttendanceFieldParser.INVALID_DATE && !values[3].isEmpty()) {
+            System.err.println("Could not parse date: " + clean(values[3]));
+        }
+        int minuteIn = AttendanceFieldParser.parseMinuteOfDay(values[4]);
+        if (minuteIn == AttendanceFieldParser.INVALID_TIME && !values[4].isEmpty()) {
+            System.err.println("Could not parse time: " + clean(values[4]));
+        }
+        int minuteOut = AttendanceFieldParser.parseMinuteOfDay(values[5]);
+        if (minuteOut == AttendanceFieldParser.INVALID_TIME && !values[5].isEmpty()) {
+            System.err.println("Could not parse time: " + clean(values[5]));
+        }
+
+        if (epochDay == AttendanceFieldParser.INVALID_DATE
+                || minuteIn == AttendanceFieldParser.INVALID_TIME
+                || minuteOut == AttendanceFieldParser.INVALID_TIME) {
+            return null;
+        }
+        if (!AttendanceRecord.isValidTimeSequence(minuteIn, minuteOut)) {
+            System.err.println("Error processing record at line " + lineNumber + ": "
+                + AttendanceRecord.TIME_SEQUENCE_ERROR);
+            return null;
+        }
+        return new AttendanceRecord(clean(values[2]) + " " + clean(values[1]), clean(values[0]),
+            LocalDate.ofEpochDay(epochDay),
+            LocalTime.of(minuteIn / 60, minuteIn % 60),
+            LocalTime.of(minuteOut / 60, minuteOut % 60));
+    }
+
+    private static String clean(String value) {
+        return value.replace("\"", "").trim();
+    }
+
+    /**
+     * Open-addressing table from raw employee ID bytes to builder keys, so rows
+     * of an already seen employee do not allocate an ID string.
+     */
+    private static final class EmployeeKeys {
+        private byte[][] ids = new byte[64][];
+        private int[] keys = new int[64];
+        private int count;
+
+        int keyOf(byte[] line, int start, int end, Chunk chunk) {
+            // Same cleaning as cleanId: drop quotes and surrounding whitespace
+            while (start < end && (line[start] == '"' || line[start] <= ' ')) {
+                start++;
+            }
+            while (end > start && (line[end - 1] == '"' || line[end - 1] <= ' ')) {
+                end--;
+            }
+
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + line[i];
+            }
+
+            int mask = ids.length - 1;
+            int slot = hash & mask;
+            while (ids[slot] != null) {
+                if (Arrays.equals(ids[slot], 0, ids[slot].length, line, start, end)) {
+                    return keys[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            int key = chunk.addEmployee(line);
+            ids[slot] = Arrays.copyOfRange(line, start, end);
+            keys[slot] = key;
+            if (++count * 2 > ids.length) {
+                grow();
+            }
+            return key;
+        }
+
+        private void grow() {
+            byte[][] oldIds = ids;
+            int[] oldKeys = keys;
+            ids = new byte[oldIds.length * 2][];
+            keys = new int[oldIds.length * 2];
+            int mask = ids.length - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != null) {
+                    int hash = 1;
+                    for (byte b : oldIds[i]) {
+                        hash = 31 * hash + b;
+                    }
+                    int slot = hash & mask;
+                    while (ids[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    ids[slot] = oldIds[i];
+                    keys[slot] = oldKeys[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mycompany.motorph;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parser for the date and time fields of the attendance CSV.
+ * The format is detected from the characters themselves, so no exceptions are
+ * thrown and no intermediate Strings are created. Results are returned as
+ * epoch days and minutes of the day.
+ *
+ * Supported dates: MM/dd/yyyy and yyyy-MM-dd.
+ * Supported times: H:mm, HH:mm, H:mm:ss and HH:mm:ss (seconds are dropped); 24:00 is
+ * read as midnight.
+ * Fields may be wrapped in quotes and surrounding whitespace.
+ */
+public final class AttendanceFieldParser {
+    /** Returned by {@link #parseEpochDay} when the field is not a valid date. */
+    public static final int INVALID_DATE = Integer.MIN_VALUE;
+    /** Returned by {@link #parseMinuteOfDay} when the field is not a valid time. */
+    public static final int INVALID_TIME = -1;
+
+    private static final int DAYS_0000_TO_1970 = 719528;
+
+    private AttendanceFieldParser() {
+    }
+
+    /**
+     * Parses a date field.
+     * @param field Buffer holding the field.
+     * @param start Start of the field (inclusive).
+     * @param end End of the field (exclusive).
+     * @return The epoch day, or {@link #INVALID_DATE}.
+     */
+    public static int parseEpochDay(byte[] field, int start, int end) {
+        while (start < end && isPadding(field[start])) {
+            start++;
+        }
+        while (end > start && isPadding(field[end - 1])) {
+            end--;
+        }
+        if (end - start != 10) {
+            return INVALID_DATE;
+        }
+
+        int year;
+        int month;
+        int day;
+        if (field[start + 2] == '/' && field[start + 5] == '/') {
+            // MM/dd/yyyy
+            month = digits(field, start, 2);
+            day = digits(field, start + 3, 2);
+            year = digits(field, start + 6, 4);
+        } else if (field[start + 4] == '-' && field[start + 7] == '-') {
+            // yyyy-MM-dd
+            year = digits(field, start, 4);
+            month = digits(field, start + 5, 2);
+            day = digits(field, start + 8, 2);
+        } else {
+            return INVALID_DATE;
+        }
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID_DATE;
+        }
+        // Same as DateTimeFormatter's default (smart) resolution: clamp to the last day of the month
+        return toEpochDay(year, month, Math.min(day, lengthOfMonth(year, month)));
+    }
+
+    /**
+     * Parses a time field.
+     * @param field Buffer holding the field.
+     * @param start Start of the field (inclusive).
+     * @param end End of the field (exclusive).
+     * @return The minute of the day, or {@link #INVALID_TIME}.
+     */
+    public static int parseMinuteOfDay(byte[] field, int start, int end) {
+        while (start < end && isPadding(field[start])) {
+            start++;
+        }
+        while (end > start && isPadding(field[end - 1])) {
+            end--;
+        }
+
+        // Hour has one or two digits, followed by :mm and optionally :ss
+        int hourDigits = end - start > 1 && field[start + 1] == ':' ? 1 : 2;
+        int length = end - start - hourDigits;
+        if ((length != 3 && length != 6) || field[start + hourDigits] != ':') {
+            return INVALID_TIME;
+        }
+
+        int hour = digits(field, start, hourDigits);
+        int minute = digits(field, start + hourDigits + 1, 2);
+        int second = 0;
+        if (length == 6) {
+            second = field[start + hourDigits + 3] == ':' ? digits(field, start + hourDigits + 4, 2) : -1;
+        }
+        if (hour < 0 || hour > 24 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return INVALID_TIME;
+        }
+        if (hour == 24) {
+            // As DateTimeFormatter's default (smart) resolution, 24:00 is the midnight ending the day
+            return minute == 0 && second == 0 ? 0 : INVALID_TIME;
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * String form of {@link #parseEpochDay(byte[], int, int)}.
+     */
+    public static int parseEpochDay(String field) {
+        byte[] bytes = field.getBytes(StandardCharsets.ISO_8859_1);
+        return parseEpochDay(bytes, 0, bytes.length);
+    }
+
+    /**
+     * String form of {@link #parseMinuteOfDay(byte[], int, int)}.
+     */
+    public static int parseMinuteOfDay(String field) {
+        byte[] bytes = field.getBytes(StandardCharsets.ISO_8859_1);
+        return parseMinuteOfDay(bytes, 0, bytes.length);
+    }
+
+    private static boolean isPadding(byte b) {
+        return b == '"' || (b >= 0 && b <= ' ');
+    }
+
+    // Parses a fixed number of ASCII digits, returning -1 if any is not a digit
+    private static int digits(byte[] field, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = field[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    // Same arithmetic as LocalDate.toEpochDay for positive years
+    static int toEpochDay(int year, int month, int day) {
+        int total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
@@ -1,17 +1,15 @@
 package com.mycompany.motorph;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 public class AttendanceRecord {
     private String name;
@@ -23,22 +21,19 @@ public class AttendanceRecord {
     // Work hour constants
     private static final double REGULAR_WORK_HOURS_PER_DAY = 8.0;
     private static final double OVERTIME_THRESHOLD = 8.0;
+    static final int REGULAR_WORK_MINUTES_PER_DAY = (int) (REGULAR_WORK_HOURS_PER_DAY * 60);
     
-    // Date formats
-    private static final DateTimeFormatter[] DATE_FORMATTERS = {
-        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-        DateTimeFormatter.ofPattern("yyyy-MM-dd")
-    };
-    
-    // Time formats
-    private static final DateTimeFormatter[] TIME_FORMATTERS = {
-        DateTimeFormatter.ofPattern("H:mm"),    // 8:59
-        DateTimeFormatter.ofPattern("HH:mm"),   // 08:59
-        DateTimeFormatter.ofPattern("H:mm:ss"), // 8:59:00
-        DateTimeFormatter.ofPattern("HH:mm:ss") // 08:59:00
-    };
+    static final String TIME_SEQUENCE_ERROR = "TimeOut cannot be before TimeIn unless it's midnight";
 
-    private static final List<AttendanceRecord> attendanceRecords = new ArrayList<>();
+    // Loaded attendance. Stores are immutable: a load builds a new one off to the side and
+    // swaps it in, so readers holding a store never see a partially loaded data set.
+    private static final AtomicReference<AttendanceStore> attendanceStore =
+        new AtomicReference<>(AttendanceStore.EMPTY);
+    private static AttendanceSource attendanceSource;
+    // The only source whose stores are published. Changed under PUBLISH_LOCK, so a refresh
+    // still running on a replaced source cannot publish after the new one.
+    private static final Object PUBLISH_LOCK = new Object();
+    private static AttendanceSource publishingSource;
 
     public AttendanceRecord(String name, String id, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
         this.name = Objects.requireNonNull(name, "Name cannot be null");
@@ -47,84 +42,153 @@ public class AttendanceRecord {
         this.timeIn = Objects.requireNonNull(timeIn, "TimeIn cannot be null");
         this.timeOut = Objects.requireNonNull(timeOut, "TimeOut cannot be null");
         
-        // Validate time sequence
+        validateTimeSequence(timeIn, timeOut);
+    }
+
+    private static void validateTimeSequence(LocalTime timeIn, LocalTime timeOut) {
         if (timeOut.isBefore(timeIn) && !timeOut.equals(LocalTime.MIDNIGHT)) {
-            throw new IllegalArgumentException("TimeOut cannot be before TimeIn unless it's midnight");
+            throw new IllegalArgumentException(TIME_SEQUENCE_ERROR);
         }
     }
 
-    public static void loadAttendanceFromCSV(String filePath) throws IOException {
-        attendanceRecords.clear(); // Clear existing records before loading new ones
-        
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            // Skip header row
-            br.readLine();
-            
-            String line;
-            int lineNumber = 1;
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
-                try {
-                    String[] values = line.split(",");
-                    if (values.length < 6) {
-                        System.err.println("Skipping incomplete record at line " + lineNumber);
-                        continue;
-                    }
-
-                    String id = cleanId(values[0]);
-                    String lastName = cleanName(values[1]);
-                    String firstName = cleanName(values[2]);
-                    LocalDate date = parseDate(values[3]);
-                    LocalTime timeIn = parseTime(values[4]);
-                    LocalTime timeOut = parseTime(values[5]);
-
-                    if (date != null && timeIn != null && timeOut != null) {
-                        attendanceRecords.add(new AttendanceRecord(
-                            firstName + " " + lastName, id, date, timeIn, timeOut));
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing record at line " + lineNumber + 
-                                     ": " + e.getMessage());
-                }
+    /**
+     * Minute-of-day form of the time sequence check done by the constructor.
+     * @return true if a row with these times is valid.
+     */
+    static boolean isValidTimeSequence(int minuteIn, int minuteOut) {
+        return minuteOut >= minuteIn || minuteOut == 0;
+    }
+
+    public static synchronized void loadAttendanceFromCSV(String filePath) throws IOException {
+        // The current records and source stay in use until the new file has loaded with records
+        AttendanceSource source = new AttendanceSource(filePath, AttendanceRecord::publish);
+        setPublishingSource(source);
+        try {
+            requireRecords(source.reload());
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            if (attendanceSource != null) {
+                // Updates of the current source skipped during the attempt are published now
+                setPublishingSource(attendanceSource);
+                publish(attendanceSource, attendanceSource.getStore());
             }
+            throw e;
+        }
+
+        if (attendanceSource != null) {
+            attendanceSource.close();
+        }
+        attendanceSource = source;
+    }
+
+    /**
+     * Brings the loaded records up to date with the file, parsing only rows appended
+     * since the last load. A different file, or one that was rewritten, is loaded in full.
+     */
+    public static synchronized void refreshAttendanceFromCSV(String filePath) throws IOException {
+        if (attendanceSource == null || !attendanceSource.getPath().equals(Path.of(filePath).toAbsolutePath().normalize())) {
+            loadAttendanceFromCSV(filePath);
+            return;
         }
         
-        if (attendanceRecords.isEmpty()) {
+        requireRecords(attendanceSource.refresh());
+    }
+
+    /**
+     * Streams the rows of an attendance CSV without loading them, for files too large to
+     * keep in memory. The loaded records are not changed. Close the stream when done.
+     */
+    public static Stream<AttendanceRecord> streamAttendanceFromCSV(String filePath) throws IOException {
+        return AttendanceCsvLoader.stream(filePath);
+    }
+
+    /**
+     * Keeps the loaded records in sync with the last loaded file as it changes.
+     */
+    public static synchronized void watchAttendanceFile() throws IOException {
+        if (attendanceSource == null) {
+            throw new IllegalStateException("No attendance file loaded");
+        }
+        attendanceSource.startWatching();
+    }
+
+    private static void setPublishingSource(AttendanceSource source) {
+        synchronized (PUBLISH_LOCK) {
+            publishingSource = source;
+        }
+    }
+
+    // A file without valid rows never replaces the loaded records
+    private static void publish(AttendanceSource source, AttendanceStore store) {
+        synchronized (PUBLISH_LOCK) {
+            if (source == publishingSource && store.size() > 0) {
+                attendanceStore.set(store);
+            }
+        }
+    }
+
+    private static void requireRecords(AttendanceStore store) throws IOException {
+        if (store.size() == 0) {
             throw new IOException("No valid attendance records found in file");
         }
     }
 
     public double[] calculateWorkHours() {
-        Duration duration;
+        int totalMinutes = getWorkedMinutes();
+        return new double[]{regularMinutes(totalMinutes) / 60.0, overtimeMinutes(totalMinutes) / 60.0};
+    }
+
+    /**
+     * @return Whole minutes between time in and time out.
+     */
+    public int getWorkedMinutes() {
+        int seconds = timeOut.toSecondOfDay() - timeIn.toSecondOfDay();
         
         // Handle overnight shifts (timeOut is next day)
         if (timeOut.isBefore(timeIn)) {
-            duration = Duration.between(timeIn, timeOut.plusHours(24));
-        } else {
-            duration = Duration.between(timeIn, timeOut);
+            seconds += 24 * 60 * 60;
         }
         
-        double totalHours = duration.toMinutes() / 60.0;
-        double regularHours = Math.min(totalHours, REGULAR_WORK_HOURS_PER_DAY);
-        double overtimeHours = Math.max(0, totalHours - REGULAR_WORK_HOURS_PER_DAY);
-        
-        return new double[]{regularHours, overtimeHours};
+        return seconds / 60;
+    }
+
+    static int regularMinutes(int workedMinutes) {
+        return Math.min(workedMinutes, REGULAR_WORK_MINUTES_PER_DAY);
+    }
+
+    static int overtimeMinutes(int workedMinutes) {
+        return Math.max(0, workedMinutes - REGULAR_WORK_MINUTES_PER_DAY);
     }
 
     public static double[] calculateTotalWorkHours(String employeeID, int year, int month, int week) {
-        double[] totals = new double[]{0.0, 0.0};
-        
-        for (AttendanceRecord record : attendanceRecords) {
-            if (record.getId().equals(employeeID) && 
-                isDateInTargetWeek(record.getDate(), year, month, week)) {
-                
-                double[] dailyHours = record.calculateWorkHours();
-                totals[0] += dailyHours[0];
-                totals[1] += dailyHours[1];
-            }
-        }
+        PayWeekCube cube = PayWeekCube.forStore(attendanceStore.get());
+        int key = cube.getStore().keyOf(employeeID);
+        return new double[]{
+            cube.regularMinutes(key, year, month, week) / 60.0,
+            cube.overtimeMinutes(key, year, month, week) / 60.0
+        };
+    }
+
+    /**
+     * Streaming form of {@link #calculateTotalWorkHours(String, int, int, int)} for attendance
+     * that is not loaded, e.g. a stream from {@link #streamAttendanceFromCSV}. Consumes the stream.
+     */
+    public static double[] calculateTotalWorkHours(Stream<AttendanceRecord> records, String employeeID,
+                                                   int year, int month, int week) {
+        long[] totals = records
+            .filter(record -> record.id.equals(employeeID) && isDateInTargetWeek(record.date, year, month, week))
+            .mapToInt(AttendanceRecord::getWorkedMinutes)
+            .collect(() -> new long[2],
+                (sums, minutes) -> {
+                    sums[0] += regularMinutes(minutes);
+                    sums[1] += overtimeMinutes(minutes);
+                },
+                (left, right) -> {
+                    left[0] += right[0];
+                    left[1] += right[1];
+                });
         
-        return totals;
+        return new double[]{totals[0] / 60.0, totals[1] / 60.0};
     }
 
     public static boolean isDateInTargetWeek(LocalDate date, int year, int month, int week) {
@@ -144,51 +208,78 @@ public class AttendanceRecord {
         return adjustedWeek == week;
     }
 
-    // Helper methods for parsing and cleaning data
-    private static String cleanId(String id) {
-        return id.replace("\"", "").trim();
+    /**
+     * Returns an employee's records dated within the given range, sorted by date.
+     * @param employeeID The employee ID.
+     * @param from First date of the range (inclusive).
+     * @param to Last date of the range (inclusive).
+     * @return List of matching records.
+     */
+    public static List<AttendanceRecord> getEmployeeRecords(String employeeID, LocalDate from, LocalDate to) {
+        AttendanceStore store = attendanceStore.get();
+        int key = store.keyOf(employeeID);
+        int end = store.rangeEnd(key, (int) to.toEpochDay());
+        List<AttendanceRecord> records = new ArrayList<>();
+        for (int row = store.rangeStart(key, (int) from.toEpochDay()); row < end; row++) {
+            records.add(store.toRecord(key, row));
+        }
+        return records;
     }
 
-    private static String cleanName(String name) {
-        return name.replace("\"", "").trim();
+    /**
+     * Returns an employee's records for a week as defined by {@link #isDateInTargetWeek}.
+     */
+    public static List<AttendanceRecord> getRecordsInTargetWeek(String employeeID, int year, int month, int week) {
+        int[] weekDays = targetWeekEpochDays(year, month, week);
+        return getEmployeeRecords(employeeID, LocalDate.ofEpochDay(weekDays[0]), LocalDate.ofEpochDay(weekDays[1]));
     }
 
-    private static LocalDate parseDate(String dateString) {
+    /**
+     * Returns the first and last epoch day of a week as defined by {@link #isDateInTargetWeek}.
+     * Those weeks are contiguous runs of days within the month. If the month has no such
+     * week, the returned range is empty (first day after last day).
+     */
+    static int[] targetWeekEpochDays(int year, int month, int week) {
+        LocalDate monthStart = LocalDate.of(year, month, 1);
+        int monthStartDay = (int) monthStart.toEpochDay();
+        int firstDayOfWeek = monthStart.getDayOfWeek().getValue();
+        int firstDay = 0;
+        int lastDay = -1;
+
+        for (int day = 1; day <= monthStart.lengthOfMonth(); day++) {
+            int dayOfWeek = (firstDayOfWeek + day - 2) % 7 + 1;
+            if ((day - dayOfWeek + 10) / 7 == week) {
+                if (firstDay == 0) {
+                    firstDay = day;
+                }
+                lastDay = day;
+            }
+        }
+
+        return new int[]{monthStartDay + firstDay - 1, monthStartDay + lastDay - 1};
+    }
+
+    static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // Helper methods for parsing data
+    static LocalDate parseDate(String dateString) {
         if (dateString == null || dateString.isEmpty()) {
             return null;
         }
         
-        dateString = dateString.replace("\"", "").trim();
-        
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                return LocalDate.parse(dateString, formatter);
-            } catch (DateTimeParseException e) {
-                // Try next format
-            }
-        }
-        
-        System.err.println("Could not parse date: " + dateString);
-        return null;
+        int epochDay = AttendanceFieldParser.parseEpochDay(dateString);
+        return epochDay == AttendanceFieldParser.INVALID_DATE ? null : LocalDate.ofEpochDay(epochDay);
     }
 
-    private static LocalTime parseTime(String timeString) {
+    static LocalTime parseTime(String timeString) {
         if (timeString == null || timeString.isEmpty()) {
             return null;
         }
         
-        timeString = timeString.replace("\"", "").trim();
-        
-        for (DateTimeFormatter formatter : TIME_FORMATTERS) {
-            try {
-                return LocalTime.parse(timeString, formatter);
-            } catch (DateTimeParseException e) {
-                // Try next format
-            }
-        }
-        
-        System.err.println("Could not parse time: " + timeString);
-        return null;
+        int minuteOfDay = AttendanceFieldParser.parseMinuteOfDay(timeString);
+        return minuteOfDay == AttendanceFieldParser.INVALID_TIME ? null : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
     }
 
     // Getters
@@ -197,8 +288,22 @@ public class AttendanceRecord {
     public LocalDate getDate() { return date; }
     public LocalTime getTimeIn() { return timeIn; }
     public LocalTime getTimeOut() { return timeOut; }
+    /**
+     * @return Read-only view of the currently loaded records. The view is not a copy and
+     *         keeps showing the same records if attendance is reloaded meanwhile.
+     */
     public static List<AttendanceRecord> getAttendanceRecords() { 
-        return new ArrayList<>(attendanceRecords); 
+        return attendanceStore.get().asRecordList();
+    }
+    public static int getAttendanceRecordCount() {
+        return attendanceStore.get().size();
+    }
+    /**
+     * @return The currently loaded records. Callers should read the store once and use it
+     *         for a whole calculation so that a concurrent reload cannot change its input.
+     */
+    public static AttendanceStore getAttendanceStore() {
+        return attendanceStore.get();
     }
 
     @Override
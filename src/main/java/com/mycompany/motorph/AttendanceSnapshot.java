@@ -0,0 +1,198 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of a loaded attendance CSV, used to skip parsing on startup.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header     magic "MPHA", int version, long CSV size, long CSV modified time,
+ *            int line count, int employee count, int row count
+ * dictionary per employee: id and name (unsigned short length + UTF-8 bytes), first row
+ * rows       per row: int employee key, int epoch day, short minute in, short minute out
+ * trailer    long CRC32 of everything before it
+ * </pre>
+ * A snapshot is only used when the CSV still has the recorded size and modified time.
+ */
+public final class AttendanceSnapshot {
+    private static final int MAGIC = 0x4D504841; // "MPHA"
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".snapshot";
+
+    private AttendanceSnapshot() {
+    }
+
+    /**
+     * A store read back from a snapshot, with the number of CSV lines it was built from.
+     */
+    public record Snapshot(AttendanceStore store, int lineCount) {
+    }
+
+    /**
+     * @return The snapshot path used for a CSV file.
+     */
+    public static Path pathFor(Path csvPath) {
+        return csvPath.resolveSibling(csvPath.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Writes a snapshot. The file is written under a temporary name and then moved into place.
+     * @param lineCount Number of lines in the CSV, including the header.
+     */
+    public static void write(Path snapshotPath, AttendanceStore store, long csvSize, long csvModified,
+                             int lineCount) throws IOException {
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(csvSize);
+            out.writeLong(csvModified);
+            out.writeInt(lineCount);
+            out.writeInt(store.employeeCount());
+            out.writeInt(store.size());
+
+            int firstRow = 0;
+            for (int key = 0; key < store.employeeCount(); key++) {
+                writeString(out, store.employeeId(key));
+                writeString(out, store.employeeName(key));
+                out.writeInt(firstRow);
+                firstRow += store.rowCount(key);
+            }
+
+            for (int key = 0; key < store.employeeCount(); key++) {
+                for (int row = 0; row < store.rowCount(key); row++) {
+                    out.writeInt(key);
+                    out.writeInt(store.epochDay(key, row));
+                    out.writeShort(store.minuteIn(key, row));
+                    out.writeShort(store.minuteOut(key, row));
+                }
+            }
+
+            out.writeLong(crc.getValue()); // Not covered by the checksum it records
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot through a memory-mapped buffer.
+     * @return The snapshot, or null if it is missing, corrupt, from another format version,
+     *         or was taken from a different version of the CSV.
+     */
+    public static Snapshot read(Path snapshotPath, long csvSize, long csvModified) {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 40 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != csvSize || buffer.getLong() != csvModified) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - 8));
+            if (crc.getValue() != buffer.getLong((int) size - 8)) {
+                System.err.println("Ignoring corrupt attendance snapshot: " + snapshotPath);
+                return null;
+            }
+
+            int lineCount = buffer.getInt();
+            int employeeCount = buffer.getInt();
+            int rowCount = buffer.getInt();
+
+            String[] ids = new String[employeeCount];
+            String[] names = new String[employeeCount];
+            int[] employeeStart = new int[employeeCount + 1];
+            for (int key = 0; key < employeeCount; key++) {
+                ids[key] = readString(buffer);
+                names[key] = readString(buffer);
+                employeeStart[key] = buffer.getInt();
+            }
+            employeeStart[employeeCount] = rowCount;
+
+            int[] employeeKeys = new int[rowCount];
+            int[] epochDays = new int[rowCount];
+            short[] minutesIn = new short[rowCount];
+            short[] minutesOut = new short[rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                employeeKeys[row] = buffer.getInt();
+                epochDays[row] = buffer.getInt();
+                minutesIn[row] = buffer.getShort();
+                minutesOut[row] = buffer.getShort();
+            }
+
+            AttendanceStore store = AttendanceStore.of(ids, names, employeeStart,
+                employeeKeys, epochDays, minutesIn, minutesOut);
+            return new Snapshot(store, lineCount);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Could not read attendance snapshot " + snapshotPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts an attendance CSV into a snapshot.
+     * Usage: AttendanceSnapshot &lt;csv file&gt; [snapshot file]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: AttendanceSnapshot <csv file> [snapshot file]");
+            System.exit(1);
+        }
+
+        try {
+            Path csvPath = Path.of(args[0]);
+            Path snapshotPath = args.length > 1 ? Path.of(args[1]) : pathFor(csvPath);
+
+            long start = System.nanoTime();
+            long csvSize = Files.size(csvPath);
+            long csvModified = Files.getLastModifiedTime(csvPath).toMillis();
+            AttendanceCsvLoader.Parsed parsed;
+            try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+                long dataStart = AttendanceCsvLoader.nextLineStart(channel, 0, csvSize); // Skip header row
+                parsed = AttendanceCsvLoader.parse(channel, dataStart, csvSize, 2);
+            }
+            AttendanceStore store = parsed.rows().build();
+            write(snapshotPath, store, csvSize, csvModified, 1 + parsed.lineCount());
+
+            System.out.printf("Wrote %d records for %d employees to %s in %d ms%n",
+                store.size(), store.employeeCount(), snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("Error converting attendance file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
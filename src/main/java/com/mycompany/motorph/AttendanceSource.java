@@ -0,0 +1,237 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * An attendance CSV that is read incrementally.
+ * The source remembers how far into the file it has read and the file's size and
+ * modification time at that point. A refresh only parses rows appended since then,
+ * and falls back to a full reload when the file was truncated or rewritten.
+ */
+public class AttendanceSource implements AutoCloseable {
+    // Bytes compared at the start of the file and just before the read offset to detect rewrites
+    private static final int FINGERPRINT_BYTES = 4096;
+
+    private final Path path;
+    private final BiConsumer<AttendanceSource, AttendanceStore> listener;
+
+    private AttendanceStore store = AttendanceStore.EMPTY;
+    private long offset;        // End of the last line read
+    private int nextLine;       // Line number of the line starting at offset
+    private long knownSize = -1;
+    private long knownModified;
+    private long fingerprint;
+
+    private WatchService watchService;
+    private boolean closed;
+
+    /**
+     * @param filePath Path to the attendance CSV.
+     * @param listener Called with this source and its new store whenever a refresh changes it.
+     */
+    public AttendanceSource(String filePath, BiConsumer<AttendanceSource, AttendanceStore> listener) {
+        this.path = Path.of(filePath).toAbsolutePath().normalize();
+        this.listener = listener;
+    }
+
+    public Path getPath() { return path; }
+
+    public synchronized AttendanceStore getStore() { return store; }
+
+    /**
+     * Brings the store up to date with the file.
+     * @return The current store.
+     */
+    public synchronized AttendanceStore refresh() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (size == knownSize && modified == knownModified) {
+                return store;
+            }
+
+            if (knownSize < 0 || size < offset || fingerprint(channel, offset) != fingerprint
+                    || (offset > 0 && size > offset && byteAt(channel, offset - 1) != '\n')) {
+                return reload(channel, size, modified);
+            }
+
+            // Only read complete lines; a partially written last line is picked up next time
+            long end = lastLineEnd(channel, offset, size);
+            if (end > offset) {
+                AttendanceCsvLoader.Parsed tail = AttendanceCsvLoader.parse(channel, offset, end, nextLine);
+                offset = end;
+                nextLine += tail.lineCount();
+                fingerprint = fingerprint(channel, offset);
+                publish(store.append(tail.rows().build()));
+            }
+            knownSize = size;
+            knownModified = modified;
+            return store;
+        }
+    }
+
+    /**
+     * Discards everything read so far and loads the whole file again, from its
+     * snapshot if one was written for the file's current size and modified time.
+     * @return The reloaded store.
+     */
+    public synchronized AttendanceStore reload() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return reload(channel, channel.size(), Files.getLastModifiedTime(path).toMillis());
+        }
+    }
+
+    private AttendanceStore reload(FileChannel channel, long size, long modified) throws IOException {
+        Path snapshotPath = AttendanceSnapshot.pathFor(path);
+        AttendanceSnapshot.Snapshot snapshot = AttendanceSnapshot.read(snapshotPath, size, modified);
+
+        AttendanceStore loaded;
+        if (snapshot != null) {
+            loaded = snapshot.store();
+            nextLine = snapshot.lineCount() + 1;
+        } else {
+            long dataStart = AttendanceCsvLoader.nextLineStart(channel, 0, size); // Skip header row
+            AttendanceCsvLoader.Parsed parsed = AttendanceCsvLoader.parse(channel, dataStart, size, 2);
+            loaded = parsed.rows().build();
+            nextLine = 2 + parsed.lineCount();
+            writeSnapshot(snapshotPath, loaded, size, modified);
+        }
+
+        offset = size;
+        knownSize = size;
+        knownModified = modified;
+        fingerprint = fingerprint(channel, offset);
+        publish(loaded);
+        return store;
+    }
+
+    // The snapshot only speeds up the next start, so failing to write it is not an error
+    private void writeSnapshot(Path snapshotPath, AttendanceStore loaded, long size, long modified) {
+        if (loaded.size() == 0) {
+            return;
+        }
+        try {
+            AttendanceSnapshot.write(snapshotPath, loaded, size, modified, nextLine - 1);
+        } catch (IOException e) {
+            System.err.println("Could not write attendance snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+    }
+
+    private void publish(AttendanceStore updated) {
+        store = updated;
+        if (listener != null && !closed) {
+            listener.accept(this, updated);
+        }
+    }
+
+    /**
+     * Starts a daemon thread that refreshes the source whenever the file is modified.
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        path.getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watch(service), "attendance-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (path.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    try {
+                        refresh();
+                    } catch (IOException e) {
+                        System.err.println("Error refreshing attendance records: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching stopped
+        }
+    }
+
+    /**
+     * Stops watching the file. The listener is not called after the source is closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    // ================== FILE HELPERS ================== //
+
+    /**
+     * @return Position just after the last newline in [from, size), or from if there is none.
+     */
+    private static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = size;
+        while (position > from) {
+            int length = (int) Math.min(buffer.capacity(), position - from);
+            buffer.clear().limit(length);
+            channel.read(buffer, position - length);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return position - length + i + 1;
+                }
+            }
+            position -= length;
+        }
+        return from;
+    }
+
+    private static int byteAt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, position) == 1 ? buffer.get(0) : -1;
+    }
+
+    /**
+     * Checksum of the start of the file and of the bytes just before the given offset.
+     */
+    private static long fingerprint(FileChannel channel, long offset) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(read(channel, 0, Math.min(FINGERPRINT_BYTES, offset)));
+        crc.update(read(channel, Math.max(0, offset - FINGERPRINT_BYTES), Math.min(FINGERPRINT_BYTES, offset)));
+        return crc.getValue();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+            // Keep reading until the range is filled or the file ends
+        }
+        return buffer.flip();
+    }
+}
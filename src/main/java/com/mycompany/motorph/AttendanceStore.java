@@ -0,0 +1,559 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Columnar attendance storage.
+ * A store is immutable once built; loading or appending rows produces a new store.
+ * Each employee's rows are kept as parallel primitive arrays (epoch day, minute-of-day
+ * in and out) sorted by date. Employee IDs and names are stored once per employee in a
+ * dictionary rather than once per row. Stores built from one another by {@link #append}
+ * share the row arrays of employees without new rows, so an append costs the rows of
+ * the employees it touches rather than every row.
+ *
+ * Rows are numbered from 0 within each employee. Readers iterate a row range directly:
+ * <pre>
+ * int key = store.keyOf(employeeId);
+ * for (int row = store.rangeStart(key, fromDay), end = store.rangeEnd(key, toDay); row &lt; end; row++) {
+ *     store.minuteIn(key, row) ...
+ * }
+ * </pre>
+ */
+public class AttendanceStore {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final Rows NO_ROWS = new Rows(new int[0], new short[0], new short[0]);
+
+    public static final AttendanceStore EMPTY = new Builder().build();
+
+    private final long version = VERSIONS.incrementAndGet();
+
+    // Employee dictionary, indexed by key
+    private final String[] employeeIds;
+    private final String[] employeeNames;
+    private final Map<String, Integer> keysById;
+    private final Rows[] rows;          // each key's rows
+    private final int[] employeeStart;  // rows before each key, plus the total row count
+
+    /**
+     * One employee's rows, sorted by date. Never modified once built, so stores share them.
+     */
+    private static final class Rows {
+        final int[] epochDays;
+        final short[] minutesIn;
+        final short[] minutesOut;
+
+        // Derived columns, computed once when the rows are built
+        final short[] regularMinutes;
+        final short[] overtimeMinutes;
+        final boolean[] overnight;
+
+        Rows(int[] epochDays, short[] minutesIn, short[] minutesOut) {
+            this(epochDays, minutesIn, minutesOut, new short[epochDays.length], new short[epochDays.length],
+                new boolean[epochDays.length]);
+            for (int row = 0; row < epochDays.length; row++) {
+                int worked = minutesOut[row] - minutesIn[row];
+                if (worked < 0) {
+                    worked += MINUTES_PER_DAY;
+                    overnight[row] = true;
+                }
+                regularMinutes[row] = (short) AttendanceRecord.regularMinutes(worked);
+                overtimeMinutes[row] = (short) AttendanceRecord.overtimeMinutes(worked);
+            }
+        }
+
+        Rows(int[] epochDays, short[] minutesIn, short[] minutesOut,
+             short[] regularMinutes, short[] overtimeMinutes, boolean[] overnight) {
+            this.epochDays = epochDays;
+            this.minutesIn = minutesIn;
+            this.minutesOut = minutesOut;
+            this.regularMinutes = regularMinutes;
+            this.overtimeMinutes = overtimeMinutes;
+            this.overnight = overnight;
+        }
+
+        int size() {
+            return epochDays.length;
+        }
+    }
+
+    private AttendanceStore(String[] employeeIds, String[] employeeNames, Map<String, Integer> keysById,
+                            Rows[] rows) {
+        this.employeeIds = employeeIds;
+        this.employeeNames = employeeNames;
+        this.keysById = keysById;
+        this.rows = rows;
+        this.employeeStart = new int[rows.length + 1];
+        for (int key = 0; key < rows.length; key++) {
+            employeeStart[key + 1] = employeeStart[key] + rows[key].size();
+        }
+    }
+
+    /**
+     * Creates a store from columns that are already grouped by employee and sorted by date.
+     * @param employeeStart First row of each employee key, followed by the row count.
+     */
+    static AttendanceStore of(String[] employeeIds, String[] employeeNames, int[] employeeStart,
+                              int[] employeeKeys, int[] epochDays, short[] minutesIn, short[] minutesOut) {
+        int rowCount = epochDays.length;
+        if (employeeNames.length != employeeIds.length || employeeStart.length != employeeIds.length + 1
+                || employeeKeys.length != rowCount || minutesIn.length != rowCount || minutesOut.length != rowCount
+                || employeeStart[0] != 0 || employeeStart[employeeIds.length] != rowCount) {
+            throw new IllegalArgumentException("Inconsistent attendance columns");
+        }
+        Map<String, Integer> keysById = new HashMap<>(employeeIds.length * 2);
+        Rows[] rows = new Rows[employeeIds.length];
+        for (int key = 0; key < employeeIds.length; key++) {
+            int from = employeeStart[key];
+            int to = employeeStart[key + 1];
+            if (from > to) {
+                throw new IllegalArgumentException("Inconsistent attendance columns");
+            }
+            keysById.put(employeeIds[key], key);
+            rows[key] = new Rows(Arrays.copyOfRange(epochDays, from, to),
+                Arrays.copyOfRange(minutesIn, from, to), Arrays.copyOfRange(minutesOut, from, to));
+        }
+        return new AttendanceStore(employeeIds, employeeNames, keysById, rows);
+    }
+
+    // ================== DICTIONARY ================== //
+
+    /**
+     * @return A number identifying this store, higher than that of every store built before it.
+     */
+    public long version() { return version; }
+    public int size() { return employeeStart[rows.length]; }
+    public int employeeCount() { return employeeIds.length; }
+    public String employeeId(int key) { return employeeIds[key]; }
+    public String employeeName(int key) { return employeeNames[key]; }
+
+    /**
+     * @return The key of an employee ID, or -1 if the employee has no rows.
+     */
+    public int keyOf(String employeeId) {
+        Integer key = keysById.get(employeeId);
+        return key == null ? -1 : key;
+    }
+
+    // ================== ROW RANGES ================== //
+
+    /**
+     * @return Number of rows of an employee, or 0 for an unknown key.
+     */
+    public int rowCount(int key) {
+        return rowsOf(key).size();
+    }
+
+    /**
+     * @return First row of an employee dated on or after the given epoch day.
+     */
+    public int rangeStart(int key, int fromEpochDay) {
+        Rows employee = rowsOf(key);
+        return lowerBound(employee.epochDays, employee.size(), fromEpochDay);
+    }
+
+    /**
+     * @return Row after the last row of an employee dated on or before the given epoch day.
+     */
+    public int rangeEnd(int key, int toEpochDay) {
+        Rows employee = rowsOf(key);
+        return lowerBound(employee.epochDays, employee.size(), toEpochDay + 1L);
+    }
+
+    private static int lowerBound(int[] epochDays, int high, long epochDay) {
+        int low = 0;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Rows rowsOf(int key) {
+        return key < 0 ? NO_ROWS : rows[key];
+    }
+
+    /**
+     * @return Whether two stores hold the very same rows for an employee, as stores built
+     *         by {@link #append} do for employees without new rows.
+     */
+    boolean sharesRows(int key, AttendanceStore other, int otherKey) {
+        return key >= 0 && otherKey >= 0 && rows[key] == other.rows[otherKey];
+    }
+
+    // ================== COLUMNS ================== //
+    // Rows are numbered from 0 within each employee
+
+    public int epochDay(int key, int row) { return rows[key].epochDays[row]; }
+    public int minuteIn(int key, int row) { return rows[key].minutesIn[row]; }
+    public int minuteOut(int key, int row) { return rows[key].minutesOut[row]; }
+
+    /**
+     * @return Minutes between time in and time out, treating an earlier time out as the next day.
+     */
+    public int workedMinutes(int key, int row) {
+        return rows[key].regularMinutes[row] + rows[key].overtimeMinutes[row];
+    }
+
+    /**
+     * @return Worked minutes up to the regular hours of a day.
+     */
+    public int regularMinutes(int key, int row) { return rows[key].regularMinutes[row]; }
+
+    /**
+     * @return Worked minutes beyond the regular hours of a day.
+     */
+    public int overtimeMinutes(int key, int row) { return rows[key].overtimeMinutes[row]; }
+
+    /**
+     * @return Whether time out is on the day after time in.
+     */
+    public boolean isOvernight(int key, int row) { return rows[key].overnight[row]; }
+
+    /**
+     * Materializes a row as an AttendanceRecord.
+     */
+    public AttendanceRecord toRecord(int key, int row) {
+        Rows employee = rows[key];
+        return new AttendanceRecord(employeeNames[key], employeeIds[key],
+            LocalDate.ofEpochDay(employee.epochDays[row]),
+            LocalTime.of(employee.minutesIn[row] / 60, employee.minutesIn[row] % 60),
+            LocalTime.of(employee.minutesOut[row] / 60, employee.minutesOut[row] % 60));
+    }
+
+    /**
+     * @return Read-only list view of the rows, employee by employee. Records are created as
+     *         they are read.
+     */
+    public List<AttendanceRecord> asRecordList() {
+        return new RecordList();
+    }
+
+    private final class RecordList extends AbstractList<AttendanceRecord> implements RandomAccess {
+        @Override
+        public AttendanceRecord get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            // Last key whose first row is at or before the index
+            int key = lowerBound(employeeStart, rows.length + 1, index + 1L) - 1;
+            return toRecord(key, index - employeeStart[key]);
+        }
+
+        @Override
+        public int size() {
+            return AttendanceStore.this.size();
+        }
+    }
+
+    /**
+     * Returns a store holding this store's rows followed by the rows of another store.
+     * Existing employees keep their keys and each employee's rows stay sorted by date.
+     * Employees without rows in the tail keep their row arrays, shared with this store.
+     */
+    public AttendanceStore append(AttendanceStore tail) {
+        if (tail.size() == 0) {
+            return this;
+        }
+
+        // Extend the dictionary with employees seen for the first time in the tail. The
+        // dictionary never changes once built, so without new employees it is shared.
+        String[] mergedIds = employeeIds;
+        String[] mergedNames = employeeNames;
+        Map<String, Integer> mergedKeys = keysById;
+        for (int tailKey = 0; tailKey < tail.employeeCount(); tailKey++) {
+            String employeeId = tail.employeeIds[tailKey];
+            if (!mergedKeys.containsKey(employeeId)) {
+                if (mergedKeys == keysById) {
+                    mergedKeys = new HashMap<>(keysById);
+                }
+                mergedKeys.put(employeeId, mergedKeys.size());
+            }
+        }
+        if (mergedKeys != keysById) {
+            mergedIds = Arrays.copyOf(employeeIds, mergedKeys.size());
+            mergedNames = Arrays.copyOf(employeeNames, mergedKeys.size());
+            for (int tailKey = 0; tailKey < tail.employeeCount(); tailKey++) {
+                int key = mergedKeys.get(tail.employeeIds[tailKey]);
+                if (key >= employeeIds.length) {
+                    mergedIds[key] = tail.employeeIds[tailKey];
+                    mergedNames[key] = tail.employeeNames[tailKey];
+                }
+            }
+        }
+
+        Rows[] mergedRows = Arrays.copyOf(rows, mergedIds.length);
+        Arrays.fill(mergedRows, rows.length, mergedRows.length, NO_ROWS);
+        for (int tailKey = 0; tailKey < tail.employeeCount(); tailKey++) {
+            int key = mergedKeys.get(tail.employeeIds[tailKey]);
+            mergedRows[key] = merge(mergedRows[key], tail.rows[tailKey]);
+        }
+        return new AttendanceStore(mergedIds, mergedNames, mergedKeys, mergedRows);
+    }
+
+    /**
+     * Merges two employees' rows by date. When the new rows are all dated on or after the
+     * existing ones (the usual case for an appended log) both are copied whole.
+     */
+    private static Rows merge(Rows base, Rows tail) {
+        if (tail.size() == 0) {
+            return base;
+        }
+        int total = base.size() + tail.size();
+        Rows merged = new Rows(new int[total], new short[total], new short[total],
+            new short[total], new short[total], new boolean[total]);
+
+        int at = 0;
+        if (base.size() == 0 || tail.epochDays[0] >= base.epochDays[base.size() - 1]) {
+            at = copyRows(base, 0, base.size(), merged, at);
+            copyRows(tail, 0, tail.size(), merged, at);
+        } else {
+            int baseRow = 0;
+            int tailRow = 0;
+            while (baseRow < base.size() || tailRow < tail.size()) {
+                // On equal dates existing rows come first
+                boolean takeBase = tailRow == tail.size()
+                    || (baseRow < base.size() && base.epochDays[baseRow] <= tail.epochDays[tailRow]);
+                if (takeBase) {
+                    at = copyRows(base, baseRow, ++baseRow, merged, at);
+                } else {
+                    at = copyRows(tail, tailRow, ++tailRow, merged, at);
+                }
+            }
+        }
+        return merged;
+    }
+
+    // Derived columns are copied along, so merged rows are not computed again
+    private static int copyRows(Rows source, int from, int to, Rows target, int at) {
+        int count = to - from;
+        System.arraycopy(source.epochDays, from, target.epochDays, at, count);
+        System.arraycopy(source.minutesIn, from, target.minutesIn, at, count);
+        System.arraycopy(source.minutesOut, from, target.minutesOut, at, count);
+        System.arraycopy(source.regularMinutes, from, target.regularMinutes, at, count);
+        System.arraycopy(source.overtimeMinutes, from, target.overtimeMinutes, at, count);
+        System.arraycopy(source.overnight, from, target.overnight, at, count);
+        return at + count;
+    }
+
+    // ================== CHANGES ================== //
+
+    /**
+     * Finds the days whose rows differ between an earlier store and this one, such as days
+     * with appended or corrected rows. Employees whose rows are shared with the earlier
+     * store are skipped; the others are compared with a bulk array comparison, which finds the
+     * first differing row, and left out of the result when unchanged.
+     * @return Sorted epoch days with changed rows, by employee ID.
+     */
+    public Map<String, int[]> changedDaysSince(AttendanceStore previous) {
+        Map<String, int[]> changed = new HashMap<>();
+        for (int key = 0; key < employeeCount(); key++) {
+            int previousKey = previous.keyOf(employeeIds[key]);
+            if (sharesRows(key, previous, previousKey)) {
+                continue;
+            }
+            int[] days = changedDays(previous.rowsOf(previousKey), rows[key]);
+            if (days.length > 0) {
+                changed.put(employeeIds[key], days);
+            }
+        }
+        for (int key = 0; key < previous.employeeCount(); key++) {
+            if (keyOf(previous.employeeIds[key]) < 0 && previous.rows[key].size() > 0) {
+                changed.put(previous.employeeIds[key], changedDays(previous.rows[key], NO_ROWS));
+            }
+        }
+        return changed;
+    }
+
+    private static int[] changedDays(Rows before, Rows after) {
+        int oldEnd = before.size();
+        int newEnd = after.size();
+        int same = Math.min(oldEnd, newEnd);
+        same = firstMismatch(Arrays.mismatch(before.epochDays, after.epochDays), same);
+        same = firstMismatch(Arrays.mismatch(before.minutesIn, after.minutesIn), same);
+        same = firstMismatch(Arrays.mismatch(before.minutesOut, after.minutesOut), same);
+        if (same == oldEnd && same == newEnd) {
+            return new int[0];
+        }
+
+        // Rows before the first difference are the same; back up to the start of its day
+        while (same > 0 && same < newEnd && after.epochDays[same - 1] == after.epochDays[same]) {
+            same--;
+        }
+        while (same > 0 && same < oldEnd && before.epochDays[same - 1] == before.epochDays[same]) {
+            same--;
+        }
+
+        // Walk the rest of both rows a day at a time, comparing each day's rows
+        int[] days = new int[8];
+        int count = 0;
+        int oldRow = same;
+        int newRow = same;
+        while (oldRow < oldEnd || newRow < newEnd) {
+            int day = Math.min(oldRow < oldEnd ? before.epochDays[oldRow] : Integer.MAX_VALUE,
+                newRow < newEnd ? after.epochDays[newRow] : Integer.MAX_VALUE);
+            int oldDayEnd = oldRow;
+            while (oldDayEnd < oldEnd && before.epochDays[oldDayEnd] == day) {
+                oldDayEnd++;
+            }
+            int newDayEnd = newRow;
+            while (newDayEnd < newEnd && after.epochDays[newDayEnd] == day) {
+                newDayEnd++;
+            }
+            if (!Arrays.equals(before.minutesIn, oldRow, oldDayEnd, after.minutesIn, newRow, newDayEnd)
+                    || !Arrays.equals(before.minutesOut, oldRow, oldDayEnd, after.minutesOut, newRow, newDayEnd)) {
+                if (count == days.length) {
+                    days = Arrays.copyOf(days, count * 2);
+                }
+                days[count++] = day;
+            }
+            oldRow = oldDayEnd;
+            newRow = newDayEnd;
+        }
+        return Arrays.copyOf(days, count);
+    }
+
+    private static int firstMismatch(int mismatch, int limit) {
+        return mismatch < 0 ? limit : Math.min(mismatch, limit);
+    }
+
+    /**
+     * Accumulates rows in load order and sorts them by employee and date on build.
+     */
+    public static class Builder {
+        private final Map<String, Integer> keysById = new HashMap<>();
+        private String[] employeeIds = new String[16];
+        private String[] employeeNames = new String[16];
+
+        private int[] employeeKeys = new int[1024];
+        private int[] epochDays = new int[1024];
+        private short[] minutesIn = new short[1024];
+        private short[] minutesOut = new short[1024];
+        private int size;
+
+        /**
+         * Adds a row. The employee name is only built the first time an ID is seen.
+         */
+        public Builder add(String employeeId, String firstName, String lastName,
+                           int epochDay, int minuteIn, int minuteOut) {
+            Integer key = keysById.get(employeeId);
+            if (key == null) {
+                key = addEmployee(employeeId, firstName + " " + lastName);
+            }
+            addRow(key, epochDay, minuteIn, minuteOut);
+            return this;
+        }
+
+        /**
+         * Adds a row for an employee key returned by {@link #addEmployee}.
+         */
+        public void addRow(int key, int epochDay, int minuteIn, int minuteOut) {
+            if (size == epochDays.length) {
+                int capacity = size * 2;
+                employeeKeys = Arrays.copyOf(employeeKeys, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                minutesIn = Arrays.copyOf(minutesIn, capacity);
+                minutesOut = Arrays.copyOf(minutesOut, capacity);
+            }
+            employeeKeys[size] = key;
+            epochDays[size] = epochDay;
+            minutesIn[size] = (short) minuteIn;
+            minutesOut[size] = (short) minuteOut;
+            size++;
+        }
+
+        /**
+         * Registers an employee, keeping the first name seen for an ID.
+         * @return The employee's key in this builder.
+         */
+        public int addEmployee(String employeeId, String name) {
+            Integer existing = keysById.get(employeeId);
+            if (existing != null) {
+                return existing;
+            }
+
+            int key = keysById.size();
+            if (key == employeeIds.length) {
+                employeeIds = Arrays.copyOf(employeeIds, key * 2);
+                employeeNames = Arrays.copyOf(employeeNames, key * 2);
+            }
+            employeeIds[key] = employeeId;
+            employeeNames[key] = name;
+            keysById.put(employeeId, key);
+            return key;
+        }
+
+        /**
+         * Appends every row of another builder, remapping its employee keys.
+         */
+        public Builder addAll(Builder other) {
+            int[] keyMap = new int[other.keysById.size()];
+            for (int key = 0; key < keyMap.length; key++) {
+                keyMap[key] = addEmployee(other.employeeIds[key], other.employeeNames[key]);
+            }
+            for (int row = 0; row < other.size; row++) {
+                addRow(keyMap[other.employeeKeys[row]], other.epochDays[row],
+                    other.minutesIn[row], other.minutesOut[row]);
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public AttendanceStore build() {
+            int employeeCount = keysById.size();
+
+            // Counting sort by employee key
+            int[] employeeStart = new int[employeeCount + 1];
+            for (int row = 0; row < size; row++) {
+                employeeStart[employeeKeys[row] + 1]++;
+            }
+            for (int key = 0; key < employeeCount; key++) {
+                employeeStart[key + 1] += employeeStart[key];
+            }
+
+            // Each employee's rows packed as (epoch day, source row) so sorting orders them by date
+            long[] packed = new long[size];
+            int[] next = Arrays.copyOf(employeeStart, employeeCount);
+            for (int row = 0; row < size; row++) {
+                packed[next[employeeKeys[row]]++] = ((long) epochDays[row] << 32) | row;
+            }
+
+            Rows[] rows = new Rows[employeeCount];
+            for (int key = 0; key < employeeCount; key++) {
+                int start = employeeStart[key];
+                int count = employeeStart[key + 1] - start;
+                Arrays.sort(packed, start, start + count);
+                int[] sortedDays = new int[count];
+                short[] sortedIn = new short[count];
+                short[] sortedOut = new short[count];
+                for (int i = 0; i < count; i++) {
+                    int row = (int) packed[start + i];
+                    sortedDays[i] = epochDays[row];
+                    sortedIn[i] = minutesIn[row];
+                    sortedOut[i] = minutesOut[row];
+                }
+                rows[key] = new Rows(sortedDays, sortedIn, sortedOut);
+            }
+
+            return new AttendanceStore(
+                Arrays.copyOf(employeeIds, employeeCount),
+                Arrays.copyOf(employeeNames, employeeCount),
+                new HashMap<>(keysById), rows);
+        }
+    }
+}
@@ -12,8 +12,10 @@ import java.text.DecimalFormat;
 
 public abstract class Calculation {
 
-    // Decimal formatter for consistent number formatting
-    protected static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
+    // Decimal formatter for consistent number formatting; DecimalFormat is not thread-safe,
+    // so each thread gets its own
+    private static final ThreadLocal<DecimalFormat> decimalFormat =
+        ThreadLocal.withInitial(() -> new DecimalFormat("#.##"));
 
     /**
      * Abstract method to perform the calculation.
@@ -27,6 +29,6 @@ public abstract class Calculation {
      * @return The formatted value as a String.
      */
     protected String format(double value) {
-        return decimalFormat.format(value);
+        return decimalFormat.get().format(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.mycompany.motorph;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Running totals of each employee's attendance rows, built once per attendance store and
+ * holiday calendar.
+ * For every employee and every row the columns hold the total of the rows before it, so
+ * the total over any range of days is the difference of the entries at the range's first
+ * and last rows, found by binary search of the employee's dates. Days without rows take no
+ * space. Columns: row count, regular and overtime minutes, the same minutes weighted by
+ * holiday premium percent, and minutes late for each standard shift start.
+ */
+public class DailyPayTotals {
+    private static final int GRACE_PERIOD_MINUTES = 15;
+    private static final int[] SHIFT_STARTS = {8 * 60, 9 * 60, 10 * 60};
+
+    private static final AtomicReference<DailyPayTotals> current = new AtomicReference<>();
+
+    private final AttendanceStore store;
+    private final HolidayCalendar holidays;
+
+    // Offset of each employee key's first entry in the columns. An employee with n rows has
+    // n + 1 entries.
+    private final int[] base;
+
+    private final int[] regularMinutes;
+    private final int[] overtimeMinutes;
+    private final long[] regularPremiumMinutes;
+    private final long[] overtimePremiumMinutes;
+    private final int[][] lateMinutes;
+
+    private DailyPayTotals(AttendanceStore store, HolidayCalendar holidays) {
+        this.store = store;
+        this.holidays = holidays;
+        int employees = store.employeeCount();
+        base = new int[employees];
+
+        int entries = 0;
+        for (int key = 0; key < employees; key++) {
+            base[key] = entries;
+            entries = Math.addExact(entries, store.rowCount(key) + 1);
+        }
+
+        regularMinutes = new int[entries];
+        overtimeMinutes = new int[entries];
+        regularPremiumMinutes = new long[entries];
+        overtimePremiumMinutes = new long[entries];
+        lateMinutes = new int[SHIFT_STARTS.length][entries];
+
+        for (int key = 0; key < employees; key++) {
+            addEmployee(key);
+        }
+    }
+
+    // Each entry is the previous one plus the row before it
+    private void addEmployee(int key) {
+        for (int row = 0, end = store.rowCount(key); row < end; row++) {
+            int entry = base[key] + row + 1;
+            int day = store.epochDay(key, row);
+            int regular = store.regularMinutes(key, row);
+            int overtime = store.overtimeMinutes(key, row);
+            int premiumPercent = holidays.premiumPercent(day);
+
+            regularMinutes[entry] = regularMinutes[entry - 1] + regular;
+            overtimeMinutes[entry] = overtimeMinutes[entry - 1] + overtime;
+            regularPremiumMinutes[entry] = regularPremiumMinutes[entry - 1] + (long) premiumPercent * regular;
+            overtimePremiumMinutes[entry] = overtimePremiumMinutes[entry - 1] + (long) premiumPercent * overtime;
+            for (int shift = 0; shift < SHIFT_STARTS.length; shift++) {
+                lateMinutes[shift][entry] = lateMinutes[shift][entry - 1]
+                    + Math.max(0, store.minuteIn(key, row) - SHIFT_STARTS[shift] - GRACE_PERIOD_MINUTES);
+            }
+        }
+    }
+
+    /**
+     * @return The totals of a store with the holiday calendar in use, reusing the last built
+     *         totals if they belong to the same store and calendar.
+     */
+    public static DailyPayTotals forStore(AttendanceStore store) {
+        HolidayCalendar holidays = HolidayChecker.getCalendar();
+        DailyPayTotals totals = current.get();
+        if (totals == null || totals.store.version() != store.version() || totals.holidays != holidays) {
+            totals = new DailyPayTotals(store, holidays);
+            current.set(totals);
+        }
+        return totals;
+    }
+
+    public AttendanceStore getStore() { return store; }
+    public HolidayCalendar getHolidays() { return holidays; }
+
+    // ================== RANGE TOTALS ================== //
+    // Ranges are epoch days, both inclusive. Unknown keys and empty ranges total 0.
+
+    public int rowCount(int key, int fromDay, int toDay) {
+        return key < 0 || fromDay > toDay ? 0 : store.rangeEnd(key, toDay) - store.rangeStart(key, fromDay);
+    }
+
+    public int regularMinutes(int key, int fromDay, int toDay) {
+        return key < 0 || fromDay > toDay ? 0
+            : regularMinutes[last(key, toDay)] - regularMinutes[first(key, fromDay)];
+    }
+
+    public int overtimeMinutes(int key, int fromDay, int toDay) {
+        return key < 0 || fromDay > toDay ? 0
+            : overtimeMinutes[last(key, toDay)] - overtimeMinutes[first(key, fromDay)];
+    }
+
+    /**
+     * @return Regular minutes worked on holidays, each multiplied by the day's premium percent.
+     */
+    public long regularPremiumMinutes(int key, int fromDay, int toDay) {
+        return key < 0 || fromDay > toDay ? 0
+            : regularPremiumMinutes[last(key, toDay)] - regularPremiumMinutes[first(key, fromDay)];
+    }
+
+    /**
+     * @return Overtime minutes worked on holidays, each multiplied by the day's premium percent.
+     */
+    public long overtimePremiumMinutes(int key, int fromDay, int toDay) {
+        return key < 0 || fromDay > toDay ? 0
+            : overtimePremiumMinutes[last(key, toDay)] - overtimePremiumMinutes[first(key, fromDay)];
+    }
+
+    /**
+     * Total minutes clocked in after the grace period of a shift start.
+     * @param shiftStartMinute Shift start as minute of the day.
+     */
+    public int lateMinutes(int key, int fromDay, int toDay, int shiftStartMinute) {
+        if (key < 0 || fromDay > toDay) {
+            return 0;
+        }
+        for (int shift = 0; shift < SHIFT_STARTS.length; shift++) {
+            if (SHIFT_STARTS[shift] == shiftStartMinute) {
+                return lateMinutes[shift][last(key, toDay)] - lateMinutes[shift][first(key, fromDay)];
+            }
+        }
+
+        // Not a standard shift: scan the rows
+        int threshold = shiftStartMinute + GRACE_PERIOD_MINUTES;
+        int total = 0;
+        for (int row = store.rangeStart(key, fromDay), end = store.rangeEnd(key, toDay); row < end; row++) {
+            total += Math.max(0, store.minuteIn(key, row) - threshold);
+        }
+        return total;
+    }
+
+    /**
+     * @return Entry holding the totals of the rows dated before the given day.
+     */
+    private int first(int key, int day) {
+        return base[key] + store.rangeStart(key, day);
+    }
+
+    /**
+     * @return Entry holding the totals of the rows dated on or before the given day.
+     */
+    private int last(int key, int day) {
+        return base[key] + store.rangeEnd(key, day);
+    }
+}
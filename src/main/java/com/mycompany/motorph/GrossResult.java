@@ -0,0 +1,77 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+
+/**
+ * Gross wage of one employee for one pay week, computed from one version of the attendance data.
+ * Results are immutable and shared, so deductions read the gross wage from here instead of
+ * computing it again. The hourly rate and pay amounts are in centavos (see {@link Money}).
+ * @param dataVersion Version of the attendance store the result was computed from.
+ */
+public record GrossResult(
+        String employeeID,
+        String employeeName,
+        int year,
+        int month,
+        int week,
+        LocalTime shiftStartTime,
+        boolean nightShift,
+        long hourlyRate,
+        double regularHours,
+        double overtimeHours,
+        long regularPay,
+        long overtimePay,
+        long holidayPay,
+        long dataVersion) {
+
+    /**
+     * Computes a week's gross wage from the per-week attendance totals.
+     * Holiday regular hours are paid at the holiday multiplier; holiday overtime is paid
+     * at the overtime rate, with the holiday premium counted in holiday pay only.
+     * @param hourlyRate Hourly rate in centavos.
+     */
+    static GrossResult of(PayWeekCube cube, String employeeID, String employeeName, long hourlyRate,
+                          int year, int month, int week, LocalTime shiftStartTime, boolean nightShift) {
+        int key = cube.getStore().keyOf(employeeID);
+        int regularMinutes = cube.regularMinutes(key, year, month, week);
+        int overtimeMinutes = cube.overtimeMinutes(key, year, month, week);
+        int regularPremiumMinutes = cube.regularPremiumMinutes(key, year, month, week);
+        int overtimePremiumMinutes = cube.overtimePremiumMinutes(key, year, month, week);
+
+        return new GrossResult(employeeID, employeeName, year, month, week, shiftStartTime, nightShift,
+            hourlyRate,
+            regularMinutes / 60.0,
+            overtimeMinutes / 60.0,
+            regularPay(regularMinutes, regularPremiumMinutes, hourlyRate),
+            overtimePay(overtimeMinutes, hourlyRate, nightShift),
+            holidayPay(regularPremiumMinutes, overtimePremiumMinutes, hourlyRate),
+            cube.getStore().version());
+    }
+
+    // Pay formulas, shared with PeriodPay. Premiums are in percent-minutes (premium % x minutes).
+    // Each amount is computed exactly from whole minutes and rounded half up to a centavo once.
+
+    static long regularPay(int regularMinutes, long regularPremiumMinutes, long hourlyRate) {
+        return Money.multiplyDivide(regularMinutes * 100L + regularPremiumMinutes, hourlyRate, 6000);
+    }
+
+    static long overtimePay(int overtimeMinutes, long hourlyRate, boolean nightShift) {
+        int overtimePercent = nightShift ? 110 : 125;
+        return Money.multiplyDivide((long) overtimeMinutes * overtimePercent, hourlyRate, 6000);
+    }
+
+    static long holidayPay(long regularPremiumMinutes, long overtimePremiumMinutes, long hourlyRate) {
+        return Money.multiplyDivide(regularPremiumMinutes + overtimePremiumMinutes, hourlyRate, 6000);
+    }
+
+    public double hoursWorked() {
+        return regularHours + overtimeHours;
+    }
+
+    /**
+     * @return Regular plus overtime pay, in centavos.
+     */
+    public long gross() {
+        return regularPay + overtimePay;
+    }
+}
@@ -1,27 +1,30 @@
 package com.mycompany.motorph;
 
 import java.time.LocalTime;
-import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class Grosswage extends Calculation {
+    private static final Logger logger = LogManager.getLogger(Grosswage.class);
+
+    // Results of the current attendance version and holiday calendar, shared by all Grosswage instances
+    private static final AtomicReference<ResultCache> resultCache =
+        new AtomicReference<>(new ResultCache(-1, null));
+
     private final String employeeID;
     private final String employeeName;
-    private double gross;
-    private double hourlyRate;
-    private double hoursWorked;
     private final int year;
     private final int month;
     private final int week;
     private final LocalTime shiftStartTime;
     private final boolean nightShift;
 
-    // Detailed breakdown fields
-    private double regularHours;
-    private double overtimeHours;
-    private double regularPay;
-    private double overtimePay;
-    private double holidayPay;
+    private GrossResult result;
+    private PayWeekCube cube;  // Totals the result was computed from
 
     public Grosswage(String empId, String firstName, String lastName, int year, 
                    int month, int week, LocalTime shiftStartTime, boolean nightShift) {
@@ -52,26 +55,79 @@ public class Grosswage extends Calculation {
 
     @Override
     public double calculate() {
+        return Money.toPesos(getResult().gross());
+    }
+
+    /**
+     * Computes the gross wage, or returns the result already computed for this employee and
+     * week from the current attendance data, holiday calendar and hourly rate.
+     * @return The gross wage and its breakdown.
+     */
+    public GrossResult getResult() {
         initializeAttendanceRecords();
-        Employee employee = getEmployeeData();
-        this.hourlyRate = employee.getHourlyRate();
-        
-        calculateWeeklyHoursAndPay();
-        this.gross = regularPay + overtimePay;
-        
-        validateHolidayPay();
-        return gross;
+        AttendanceStore store = AttendanceRecord.getAttendanceStore();
+        // The rate is read on every call so a changed rate is never served from the cache
+        long hourlyRate = Money.ofPesos(getEmployeeData().getHourlyRate());
+        if (result == null || result.dataVersion() != store.version() || result.hourlyRate() != hourlyRate
+                || cube.getHolidays() != HolidayChecker.getCalendar()) {
+            PayWeekCube storeCube = PayWeekCube.forStore(store);
+            HolidayCalendar holidays = storeCube.getHolidays();
+            ResultCache cache = resultCache.get();
+            if (cache.version() != store.version() || cache.holidays() != holidays) {
+                ResultCache fresh = new ResultCache(store.version(), holidays);
+                cache = resultCache.compareAndSet(cache, fresh) ? fresh : resultCache.get();
+            }
+            ResultKey key = new ResultKey(employeeID, employeeName, year, month, week, shiftStartTime, nightShift,
+                hourlyRate);
+            GrossResult cached = cache.holidays() == holidays ? cache.results().get(key) : null;
+            if (cached == null || cached.dataVersion() != store.version()) {
+                cached = compute(storeCube, hourlyRate);
+                if (cache.holidays() == holidays) {
+                    cache.results().put(key, cached);
+                }
+            }
+            result = cached;
+            cube = storeCube;
+        }
+        return result;
+    }
+
+    /**
+     * @return The last computed result, without checking it against the current attendance
+     *         data; null before calculate() is called.
+     */
+    GrossResult getLastResult() {
+        return result;
+    }
+
+    /**
+     * @return The attendance totals the last result was computed from, for deductions
+     *         that read the same week; null before calculate() is called.
+     */
+    PayWeekCube getCube() {
+        return cube;
+    }
+
+    private record ResultKey(String employeeID, String employeeName, int year, int month, int week,
+                             LocalTime shiftStartTime, boolean nightShift, long hourlyRate) {
+    }
+
+    private record ResultCache(long version, HolidayCalendar holidays, Map<ResultKey, GrossResult> results) {
+        ResultCache(long version, HolidayCalendar holidays) {
+            this(version, holidays, new ConcurrentHashMap<>());
+        }
     }
 
     private void initializeAttendanceRecords() {
         try {
-            if (AttendanceRecord.getAttendanceRecords().isEmpty()) {
-                System.out.println("Loading attendance records...");
-                AttendanceRecord.loadAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
+            if (AttendanceRecord.getAttendanceRecordCount() == 0) {
+                logger.info("Loading attendance records...");
+                AttendanceRecord.refreshAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
             }
             
-            System.out.println("Total records available: " + 
-                AttendanceRecord.getAttendanceRecords().size());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Total records available: {}", AttendanceRecord.getAttendanceRecordCount());
+            }
         } catch (Exception e) {
             throw new IllegalStateException("Failed to initialize attendance records: " + e.getMessage(), e);
         }
@@ -91,111 +147,52 @@ public class Grosswage extends Calculation {
         return employee;
     }
 
-    private void calculateWeeklyHoursAndPay() {
-        resetCounters();
-        List<AttendanceRecord> records = AttendanceRecord.getAttendanceRecords();
-        
-        if (records.isEmpty()) {
+    private GrossResult compute(PayWeekCube cube, long hourlyRate) {
+        AttendanceStore store = cube.getStore();
+        if (store.size() == 0) {
             throw new IllegalStateException("No attendance records available");
         }
-        
-        System.out.println("Processing records for employee: " + employeeID);
-        System.out.println("Target period: " + year + "-" + month + " week " + week);
-        
-        int matchingRecords = 0;
-        
-        for (AttendanceRecord record : records) {
-            if (record.getId().equals(employeeID)) {
-                if (AttendanceRecord.isDateInTargetWeek(record.getDate(), year, month, week)) {
-                    matchingRecords++;
-                    processDailyRecord(record);
-                }
-            }
-        }
-        
-        System.out.println("Found " + matchingRecords + " matching records");
-        
-        this.hoursWorked = regularHours + overtimeHours;
-        
-        if (hoursWorked <= 0) {
-            throw new IllegalStateException("No hours worked found for employee " + employeeID + 
-                " in " + year + "-" + month + " week " + week);
-        }
-    }
-
-    private void processDailyRecord(AttendanceRecord record) {
-        LocalDate recordDate = record.getDate();
-        double[] workHours = record.calculateWorkHours();
-        double dayRegular = workHours[0];
-        double dayOvertime = workHours[1];
 
-        if (HolidayChecker.isHoliday(recordDate)) {
-            applyHolidayRates(recordDate, dayRegular, dayOvertime);
-        } else {
-            applyRegularRates(dayRegular, dayOvertime);
+        // Guarded so the boxed arguments are only created when debug logging is on
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processing records for employee {} in {}-{} week {}", employeeID, year, month, week);
         }
-    }
-
-    private void resetCounters() {
-        regularHours = 0;
-        overtimeHours = 0;
-        regularPay = 0;
-        overtimePay = 0;
-        holidayPay = 0;
-        hoursWorked = 0;
-    }
-
-    private void applyHolidayRates(LocalDate date, double regularHrs, double overtimeHrs) {
-        double multiplier = HolidayChecker.getHolidayPayMultiplier(date);
-        double holidayPremiumRate = multiplier - 1.0;
         
-        regularPay += regularHrs * hourlyRate * multiplier;
-        holidayPay += regularHrs * hourlyRate * holidayPremiumRate;
-        
-        if (overtimeHrs > 0) {
-            double overtimeRate = nightShift ? 1.10 : 1.25;
-            double baseOvertime = overtimeHrs * hourlyRate * overtimeRate;
-            double overtimePremium = overtimeHrs * hourlyRate * holidayPremiumRate;
-            
-            overtimePay += baseOvertime;
-            holidayPay += overtimePremium;
+        GrossResult computed = GrossResult.of(cube, employeeID, employeeName, hourlyRate,
+            year, month, week, shiftStartTime, nightShift);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Found {} matching records",
+                cube.rowCount(store.keyOf(employeeID), year, month, week));
         }
-
-        regularHours += regularHrs;
-        overtimeHours += overtimeHrs;
-    }
-
-    private void applyRegularRates(double regularHrs, double overtimeHrs) {
-        regularPay += regularHrs * hourlyRate;
         
-        if (overtimeHrs > 0) {
-            double overtimeMultiplier = nightShift ? 1.10 : 1.25;
-            overtimePay += overtimeHrs * hourlyRate * overtimeMultiplier;
+        if (computed.hoursWorked() <= 0) {
+            throw new IllegalStateException("No hours worked found for employee " + employeeID + 
+                " in " + year + "-" + month + " week " + week);
         }
-        
-        regularHours += regularHrs;
-        overtimeHours += overtimeHrs;
+        validateHolidayPay(computed);
+        return computed;
     }
 
-    private void validateHolidayPay() {
-        double maxExpectedPremium = (regularHours + overtimeHours) * hourlyRate * 1.3;
-        if (holidayPay > maxExpectedPremium) {
+    private static void validateHolidayPay(GrossResult computed) {
+        double maxExpectedPremium = computed.hoursWorked() * computed.hourlyRate() * 1.3;
+        if (computed.holidayPay() > maxExpectedPremium) {
             throw new IllegalStateException(
                 String.format("Holiday pay %.2f exceeds reasonable maximum (%.2f)", 
-                holidayPay, maxExpectedPremium));
+                Money.toPesos(computed.holidayPay()), maxExpectedPremium / Money.CENTAVOS_PER_PESO));
         }
     }
 
     // Getters
-    public double getRegularHours() { return regularHours; }
-    public double getOvertimeHours() { return overtimeHours; }
-    public double getRegularPay() { return regularPay; }
-    public double getOvertimePay() { return overtimePay; }
-    public double getHolidayPay() { return holidayPay; }
+    // Breakdown of the last calculation in pesos; zero before calculate() is called
+    public double getRegularHours() { return result == null ? 0 : result.regularHours(); }
+    public double getOvertimeHours() { return result == null ? 0 : result.overtimeHours(); }
+    public double getRegularPay() { return result == null ? 0 : Money.toPesos(result.regularPay()); }
+    public double getOvertimePay() { return result == null ? 0 : Money.toPesos(result.overtimePay()); }
+    public double getHolidayPay() { return result == null ? 0 : Money.toPesos(result.holidayPay()); }
     public String getEmployeeID() { return employeeID; }
     public String getEmployeeName() { return employeeName; }
-    public double getHourlyRate() { return hourlyRate; }
-    public double getHoursWorked() { return hoursWorked; }
+    public double getHourlyRate() { return result == null ? 0 : Money.toPesos(result.hourlyRate()); }
+    public double getHoursWorked() { return result == null ? 0 : result.hoursWorked(); }
     public int getYear() { return year; }
     public int getMonth() { return month; }
     public int getWeek() { return week; }
@@ -218,15 +215,15 @@ public class Grosswage extends Calculation {
             shiftStartTime.format(java.time.format.DateTimeFormatter.ofPattern("HH:mm")),
             nightShift ? "(Night Shift)" : "(Day Shift)");
         System.out.println("--------------------------");
-        System.out.printf("Hourly Rate: PHP %.2f%n", hourlyRate);
-        System.out.printf("Regular Hours: %.2f (PHP %.2f)%n", regularHours, regularPay);
-        System.out.printf("Overtime Hours: %.2f (PHP %.2f)%n", overtimeHours, overtimePay);
-        if (holidayPay > 0) {
-            System.out.printf("Holiday Premium Pay: PHP %.2f%n", holidayPay);
+        System.out.printf("Hourly Rate: PHP %.2f%n", getHourlyRate());
+        System.out.printf("Regular Hours: %.2f (PHP %.2f)%n", getRegularHours(), getRegularPay());
+        System.out.printf("Overtime Hours: %.2f (PHP %.2f)%n", getOvertimeHours(), getOvertimePay());
+        if (getHolidayPay() > 0) {
+            System.out.printf("Holiday Premium Pay: PHP %.2f%n", getHolidayPay());
         }
         System.out.println("--------------------------");
-        System.out.printf("Total Hours Worked: %.2f%n", hoursWorked);
-        System.out.printf("Total Gross Wage: PHP %.2f%n", gross);
+        System.out.printf("Total Hours Worked: %.2f%n", getHoursWorked());
+        System.out.printf("Total Gross Wage: PHP %.2f%n", result == null ? 0 : Money.toPesos(result.gross()));
         System.out.println("==========================");
     }
 }
\ No newline at end of file
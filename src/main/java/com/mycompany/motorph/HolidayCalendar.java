@@ -0,0 +1,193 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Holidays of any number of years, compiled into arrays indexed by epoch day so a lookup
+ * is a single array read.
+ *
+ * The calendar is read from a CSV with the columns Date, Type, Scope and Name:
+ * <pre>
+ * Type   REGULAR (200% pay), SPECIAL (130% pay) or NONE (an ordinary working day)
+ * Scope  NATIONAL, REGION:&lt;name&gt; or COMPANY
+ * </pre>
+ * Regional entries only apply to a calendar compiled for that region. They override
+ * national entries for the same day, and company entries override both, so an overlay
+ * can add a holiday or, with NONE, make a holiday a working day. Lines starting with #
+ * are comments.
+ *
+ * The calendar covers whole years, from the first to the last year with an entry.
+ * Days outside those years are not holidays; the first lookup of such a day is reported.
+ */
+public final class HolidayCalendar {
+    public static final byte NOT_HOLIDAY = 0;
+    public static final byte REGULAR_HOLIDAY = 1;
+    public static final byte SPECIAL_NON_WORKING_DAY = 2;
+
+    private static final String NATIONAL = "NATIONAL";
+    private static final String REGION_PREFIX = "REGION:";
+    private static final String COMPANY = "COMPANY";
+
+    private record Entry(int epochDay, byte kind, int scopeRank) {
+    }
+
+    private final String region;
+    private final int firstDay;
+    // Per day from firstDay: holiday premium over the regular rate in percent, and holiday kind
+    private final byte[] premiumPercents;
+    private final byte[] kinds;
+
+    private volatile boolean reportedOutsideRange;
+
+    private HolidayCalendar(String region, int firstDay, byte[] premiumPercents, byte[] kinds) {
+        this.region = region;
+        this.firstDay = firstDay;
+        this.premiumPercents = premiumPercents;
+        this.kinds = kinds;
+    }
+
+    /**
+     * Loads and compiles a holiday calendar.
+     * @param region Region whose overlay applies, or null for national and company holidays only.
+     */
+    public static HolidayCalendar load(Path path, String region) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            reader.readLine(); // Skip header row
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] values = line.split(",", 4);
+                if (values.length < 3) {
+                    throw new IOException(path + " line " + lineNumber + ": expected Date,Type,Scope,Name");
+                }
+                int scopeRank = scopeRank(values[2].trim(), region);
+                if (scopeRank < 0) {
+                    continue; // Another region's overlay
+                }
+                try {
+                    entries.add(new Entry((int) LocalDate.parse(values[0].trim()).toEpochDay(),
+                        kindOf(values[1].trim()), scopeRank));
+                } catch (DateTimeParseException | IllegalArgumentException e) {
+                    throw new IOException(path + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return compile(region, entries);
+    }
+
+    /**
+     * @return 0 for national entries, 1 for the region's, 2 for the company's, or -1 for
+     *         entries of other regions.
+     */
+    private static int scopeRank(String scope, String region) {
+        if (scope.equals(NATIONAL)) {
+            return 0;
+        }
+        if (scope.equals(COMPANY)) {
+            return 2;
+        }
+        if (scope.startsWith(REGION_PREFIX)) {
+            return scope.substring(REGION_PREFIX.length()).trim().equalsIgnoreCase(region) ? 1 : -1;
+        }
+        throw new IllegalArgumentException("Unknown holiday scope " + scope);
+    }
+
+    private static byte kindOf(String type) {
+        return switch (type) {
+            case "REGULAR" -> REGULAR_HOLIDAY;
+            case "SPECIAL" -> SPECIAL_NON_WORKING_DAY;
+            case "NONE" -> NOT_HOLIDAY;
+            default -> throw new IllegalArgumentException("Unknown holiday type " + type);
+        };
+    }
+
+    private static HolidayCalendar compile(String region, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return new HolidayCalendar(region, 0, new byte[0], new byte[0]);
+        }
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+        for (Entry entry : entries) {
+            int year = LocalDate.ofEpochDay(entry.epochDay()).getYear();
+            firstYear = Math.min(firstYear, year);
+            lastYear = Math.max(lastYear, year);
+        }
+        int firstDay = (int) LocalDate.of(firstYear, 1, 1).toEpochDay();
+        int dayCount = (int) LocalDate.of(lastYear + 1, 1, 1).toEpochDay() - firstDay;
+        byte[] premiumPercents = new byte[dayCount];
+        byte[] kinds = new byte[dayCount];
+
+        // Wider scopes first, so overlays overwrite them
+        entries.sort(Comparator.comparingInt(Entry::scopeRank));
+        for (Entry entry : entries) {
+            int index = entry.epochDay() - firstDay;
+            kinds[index] = entry.kind();
+            premiumPercents[index] = (byte) premiumPercentOf(entry.kind());
+        }
+        return new HolidayCalendar(region, firstDay, premiumPercents, kinds);
+    }
+
+    private static int premiumPercentOf(byte kind) {
+        return switch (kind) {
+            case REGULAR_HOLIDAY -> HolidayChecker.REGULAR_HOLIDAY_PREMIUM_PERCENT;
+            case SPECIAL_NON_WORKING_DAY -> HolidayChecker.SPECIAL_DAY_PREMIUM_PERCENT;
+            default -> 0;
+        };
+    }
+
+    public String getRegion() { return region; }
+
+    /**
+     * @return Whether the calendar has the holidays of a year.
+     */
+    public boolean coversYear(int year) {
+        int day = (int) LocalDate.of(year, 1, 1).toEpochDay();
+        return day >= firstDay && day - firstDay < kinds.length;
+    }
+
+    /**
+     * Holiday premium of a day, as a percentage of the regular rate paid on top of it.
+     * @return 100 for regular holidays, 30 for special days, 0 otherwise.
+     */
+    public int premiumPercent(int epochDay) {
+        int index = epochDay - firstDay;
+        if (index < 0 || index >= premiumPercents.length) {
+            reportOutsideRange(epochDay);
+            return 0;
+        }
+        return premiumPercents[index];
+    }
+
+    /**
+     * @return REGULAR_HOLIDAY, SPECIAL_NON_WORKING_DAY or NOT_HOLIDAY.
+     */
+    public byte kind(int epochDay) {
+        int index = epochDay - firstDay;
+        if (index < 0 || index >= kinds.length) {
+            reportOutsideRange(epochDay);
+            return NOT_HOLIDAY;
+        }
+        return kinds[index];
+    }
+
+    private void reportOutsideRange(int epochDay) {
+        if (!reportedOutsideRange) {
+            reportedOutsideRange = true;
+            System.err.println("Holiday calendar has no holidays for " + LocalDate.ofEpochDay(epochDay).getYear()
+                + "; holidays are not applied outside the years it covers");
+        }
+    }
+}
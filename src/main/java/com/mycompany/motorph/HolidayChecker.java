@@ -1,61 +1,85 @@
 package com.mycompany.motorph;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.Month;
-import java.util.Set;
-import java.util.HashSet;
 
 /**
- * Philippine holidays for 2024 only
+ * Philippine holidays, read from the holiday calendar file
  * Regular holidays = 200% pay
  * Special non-working days = 130% pay
  */
 public class HolidayChecker {
-    private static final Set<LocalDate> REGULAR_HOLIDAYS = new HashSet<>();
-    private static final Set<LocalDate> SPECIAL_NON_WORKING_DAYS = new HashSet<>();
-
-    static {
-        // REGULAR HOLIDAYS (200% pay)
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.JANUARY, 1));   // New Year's Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.APRIL, 9));     // Araw ng Kagitingan
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.APRIL, 10));    // Eid'l Fitr
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.MAY, 1));       // Labor Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.JUNE, 12));     // Independence Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.JUNE, 17));     // Eid'l Adha
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.AUGUST, 26));   // National Heroes Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.NOVEMBER, 30)); // Bonifacio Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.DECEMBER, 25)); // Christmas Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.DECEMBER, 30)); // Rizal Day
-
-        // SPECIAL NON-WORKING DAYS (130% pay)
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.FEBRUARY, 10)); // Chinese New Year
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.MARCH, 28));    // Maundy Thursday
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.MARCH, 29));    // Good Friday
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.MARCH, 30));    // Black Saturday
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.AUGUST, 21));   // Ninoy Aquino Day
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.NOVEMBER, 1));  // All Saints' Day
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.DECEMBER, 8));  // Immaculate Conception
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.DECEMBER, 31)); // New Year's Eve
+    public static final int REGULAR_HOLIDAY_PREMIUM_PERCENT = 100;
+    public static final int SPECIAL_DAY_PREMIUM_PERCENT = 30;
+
+    private static final String CSV_FILE_PATH = "src/main/resources/Holidays.csv";
+
+    private static volatile HolidayCalendar calendar;
+
+    /**
+     * @return The calendar in use, loading the national and company holidays on first use.
+     */
+    public static HolidayCalendar getCalendar() {
+        HolidayCalendar current = calendar;
+        if (current == null) {
+            synchronized (HolidayChecker.class) {
+                if (calendar == null) {
+                    try {
+                        calendar = HolidayCalendar.load(Path.of(CSV_FILE_PATH), null);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to load holidays: " + e.getMessage(), e);
+                    }
+                }
+                current = calendar;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the calendar in use, e.g. with one compiled for a region. Attendance totals
+     * and gross wages computed with the previous calendar are computed again on next use.
+     */
+    public static void useCalendar(HolidayCalendar holidayCalendar) {
+        if (holidayCalendar == null) {
+            throw new IllegalArgumentException("Holiday calendar cannot be null");
+        }
+        calendar = holidayCalendar;
     }
 
     public static boolean isRegularHoliday(LocalDate date) {
-        return REGULAR_HOLIDAYS.contains(date);
+        return isRegularHoliday((int) date.toEpochDay());
     }
 
     public static boolean isSpecialNonWorkingDay(LocalDate date) {
-        return SPECIAL_NON_WORKING_DAYS.contains(date);
+        return isSpecialNonWorkingDay((int) date.toEpochDay());
     }
 
     public static boolean isHoliday(LocalDate date) {
-        return isRegularHoliday(date) || isSpecialNonWorkingDay(date);
+        return getCalendar().kind((int) date.toEpochDay()) != HolidayCalendar.NOT_HOLIDAY;
     }
 
     /**
      * @return 2.0 for regular holidays, 1.3 for special days, 1.0 otherwise
      */
     public static double getHolidayPayMultiplier(LocalDate date) {
-        if (isRegularHoliday(date)) return 2.0;
-        if (isSpecialNonWorkingDay(date)) return 1.3;
-        return 1.0;
+        return 1.0 + getHolidayPremiumPercent((int) date.toEpochDay()) / 100.0;
+    }
+
+    /**
+     * Holiday premium as a percentage of the daily rate, looked up by epoch day.
+     * @return 100 for regular holidays, 30 for special days, 0 otherwise
+     */
+    public static int getHolidayPremiumPercent(int epochDay) {
+        return getCalendar().premiumPercent(epochDay);
+    }
+
+    public static boolean isRegularHoliday(int epochDay) {
+        return getCalendar().kind(epochDay) == HolidayCalendar.REGULAR_HOLIDAY;
+    }
+
+    public static boolean isSpecialNonWorkingDay(int epochDay) {
+        return getCalendar().kind(epochDay) == HolidayCalendar.SPECIAL_NON_WORKING_DAY;
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,7 @@ package com.mycompany.motorph;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.YearMonth;
 import java.time.temporal.TemporalAdjusters;
-import java.util.List;
-import java.time.DateTimeException;
 
 public class LatePenalty extends Calculation {
     private final String targetEmployeeID;
@@ -15,14 +12,13 @@ public class LatePenalty extends Calculation {
     private final double hourlyRate;
     private final LocalTime shiftStartTime;
     
-    private static final int GRACE_PERIOD_MINUTES = 15;
     private static final LocalTime SHIFT_8AM = LocalTime.of(8, 0);
     private static final LocalTime SHIFT_9AM = LocalTime.of(9, 0);
     private static final LocalTime SHIFT_10AM = LocalTime.of(10, 0);
 
-    // Updated enum to include WEEKLY
+    // Pay cycles; see PayrollPeriod.of for the days each one covers
     public enum PayrollCycle {
-        WEEKLY, FIRST_HALF, SECOND_HALF
+        WEEKLY, FIRST_HALF, SECOND_HALF, MONTHLY, QUARTERLY, YEAR_TO_DATE
     }
 
     public LatePenalty(String targetEmployeeID, int targetMonth, int targetYear, 
@@ -62,47 +58,34 @@ public class LatePenalty extends Calculation {
 
     @Override
     public double calculate() {
-        try {
-            YearMonth yearMonth = YearMonth.of(targetYear, targetMonth);
-            LocalDate startDate = calculateWeekStartDate(yearMonth);
-            LocalDate endDate = calculateWeekEndDate(yearMonth);
-            
-            double totalLateDeduction = 0;
-            List<AttendanceRecord> attendanceRecords = AttendanceRecord.getAttendanceRecords();
-
-            for (AttendanceRecord record : attendanceRecords) {
-                if (record != null && record.getId().equals(targetEmployeeID)) {
-                    LocalDate recordDate = record.getDate();
-                    if (recordDate != null && 
-                        !recordDate.isBefore(startDate) && 
-                        !recordDate.isAfter(endDate)) {
-                        
-                        LocalTime timeIn = record.getTimeIn();
-                        if (timeIn != null) {
-                            LocalTime lateThreshold = shiftStartTime.plusMinutes(GRACE_PERIOD_MINUTES);
-                            if (timeIn.isAfter(lateThreshold)) {
-                                long minutesLate = java.time.Duration.between(lateThreshold, timeIn).toMinutes();
-                                double deduction = (hourlyRate / 60.0) * minutesLate;
-                                totalLateDeduction += Math.max(0, deduction);
-                            }
-                        }
-                    }
-                }
-            }
-            return totalLateDeduction;
-        } catch (DateTimeException e) {
-            throw new IllegalStateException("Failed to calculate late penalty: " + e.getMessage(), e);
-        }
+        // Week N covers days 7N-6 to 7N of the target month; minutes late count after a 15-minute grace period
+        PayWeekCube cube = PayWeekCube.forStore(AttendanceRecord.getAttendanceStore());
+        int key = cube.getStore().keyOf(targetEmployeeID);
+        int minutesLate = cube.lateMinutes(key, targetYear, targetMonth, week,
+            AttendanceRecord.toMinuteOfDay(shiftStartTime));
+        return Money.toPesos(deductionFor(Money.ofPesos(hourlyRate), minutesLate));
     }
 
-    private LocalDate calculateWeekStartDate(YearMonth yearMonth) {
-        int startDay = 1 + (week - 1) * 7;
-        return yearMonth.atDay(Math.min(startDay, yearMonth.lengthOfMonth()));
+    /**
+     * Late deduction of a pay week for the employee, shift and rate of a gross wage result.
+     * Unlike the constructor, any shift start is accepted.
+     * @param cube Attendance totals the gross wage result was computed from.
+     * @return The deduction in centavos.
+     */
+    static long weeklyDeduction(PayWeekCube cube, GrossResult grossResult) {
+        int key = cube.getStore().keyOf(grossResult.employeeID());
+        int minutesLate = cube.lateMinutes(key, grossResult.year(), grossResult.month(), grossResult.week(),
+            AttendanceRecord.toMinuteOfDay(grossResult.shiftStartTime()));
+        return deductionFor(grossResult.hourlyRate(), minutesLate);
     }
 
-    private LocalDate calculateWeekEndDate(YearMonth yearMonth) {
-        int endDay = week * 7;
-        return yearMonth.atDay(Math.min(endDay, yearMonth.lengthOfMonth()));
+    /**
+     * Pay for the minutes late at the hourly rate, rounded half up to a centavo.
+     * @param hourlyRate Hourly rate in centavos.
+     * @return The deduction in centavos.
+     */
+    static long deductionFor(long hourlyRate, int minutesLate) {
+        return Money.multiplyDivide(minutesLate, hourlyRate, 60);
     }
 
     // Getters
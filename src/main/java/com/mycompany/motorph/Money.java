@@ -0,0 +1,74 @@
+package com.mycompany.motorph;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for amounts of money held as a long number of centavos (1/100 peso).
+ *
+ * Payroll amounts are computed in whole centavos with integer arithmetic. Where a formula
+ * produces a fraction of a centavo it is rounded once, half up (ties away from zero), at
+ * the point named in the formula's documentation; sums and differences of amounts are exact.
+ * Pesos as a double are only for reading input and for display.
+ */
+public final class Money {
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a peso amount, such as an hourly rate read from a file, to centavos.
+     * Rounds half up as the amount is written in decimal, so 0.125 becomes 13 centavos even
+     * though the double is slightly below 0.125.
+     */
+    public static long ofPesos(double pesos) {
+        // Unless the amount is within rounding error of half a centavo, rounding the scaled
+        // double gives the same result as the decimal value, without allocating
+        double scaled = Math.abs(pesos) * CENTAVOS_PER_PESO;
+        double fraction = scaled - Math.floor(scaled);
+        if (scaled < 1e9 && Math.abs(fraction - 0.5) > 1e-6) {
+            long centavos = (long) Math.floor(scaled) + (fraction > 0.5 ? 1 : 0);
+            return pesos < 0 ? -centavos : centavos;
+        }
+        return BigDecimal.valueOf(pesos).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Parses a peso amount written with optional thousands separators, e.g. "1,125.00".
+     * @throws NumberFormatException If the text is not a number.
+     */
+    public static long parsePesos(String text) {
+        return new BigDecimal(text.replace(",", "").trim())
+            .movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * @return The amount in pesos, for display.
+     */
+    public static double toPesos(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+
+    /**
+     * Computes amount * numerator / denominator, rounded half up to a whole centavo.
+     * @param denominator A positive divisor.
+     * @throws ArithmeticException If the product overflows a long.
+     */
+    public static long multiplyDivide(long amount, long numerator, long denominator) {
+        // Twice the product, so the half-way point is a whole number for odd denominators too
+        long doubled = Math.multiplyExact(Math.multiplyExact(amount, numerator), 2L);
+        long twiceDenominator = 2 * denominator;
+        if (doubled < 0) {
+            return -((-doubled + denominator) / twiceDenominator);
+        }
+        return (doubled + denominator) / twiceDenominator;
+    }
+
+    /**
+     * Computes amount * percent / 100, rounded half up to a whole centavo.
+     */
+    public static long percentOf(long amount, long percent) {
+        return multiplyDivide(amount, percent, 100);
+    }
+}
@@ -301,8 +301,8 @@ inputPanel.add(yearSpinner, gbc);
 
                 validatePayPeriod(year, month, week);
 
-                // Refresh attendance data
-                AttendanceRecord.loadAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
+                // Pick up attendance rows added since the last calculation
+                AttendanceRecord.refreshAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
 
                 Employee employee = findEmployeeById(empId);
                 if (employee == null) {
@@ -431,8 +431,8 @@ inputPanel.add(yearSpinner, gbc);
 
                 validatePayPeriod(year, month, week);
 
-                // Refresh attendance data
-                AttendanceRecord.loadAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
+                // Pick up attendance rows added since the last calculation
+                AttendanceRecord.refreshAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
 
                 Employee employee = findEmployeeById(empId);
                 if (employee == null) {
@@ -1,13 +1,11 @@
 package com.mycompany.motorph;
 
-import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.List;
 
 public class Netwage extends Calculation {
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
     private final Grosswage grosswage;
+    private final GrossResult grossResult;
+    private final PayWeekCube cube;
     private final String employeeID;
     private final String employeeName;
     private final double gross;
@@ -16,15 +14,21 @@ public class Netwage extends Calculation {
     private final int targetMonth;
     private final int targetYear;
     
-    // Cached calculations
-    private Double sssDeduction;
-    private Double philhealthDeduction;
-    private Double pagibigDeduction;
-    private Double lateDeduction;
-    private Double withholdingTax;
+    private final PayrollPipeline pipeline;
+    private PayrollPipeline.Evaluation evaluation;
 
     public Netwage(String employeeID, String employeeName, double gross, double hours, 
                   int week, Grosswage grosswage, int targetMonth, int targetYear) {
+        this(employeeID, employeeName, gross, hours, week, grosswage, targetMonth, targetYear,
+            PayrollPipeline.standard());
+    }
+
+    /**
+     * Creates a net wage calculation that evaluates the given pipeline, e.g. one with
+     * additional deductions.
+     */
+    public Netwage(String employeeID, String employeeName, double gross, double hours, 
+                  int week, Grosswage grosswage, int targetMonth, int targetYear, PayrollPipeline pipeline) {
         if (employeeID == null || employeeID.trim().isEmpty()) {
             throw new IllegalArgumentException("Employee ID cannot be null or empty");
         }
@@ -58,92 +62,62 @@ public class Netwage extends Calculation {
         this.grosswage = grosswage;
         this.targetMonth = targetMonth;
         this.targetYear = targetYear;
+        this.pipeline = pipeline;
+
+        // Deductions are computed from the result the given gross came from, even if the
+        // attendance is reloaded before they are read
+        GrossResult lastResult = grosswage.getLastResult();
+        this.grossResult = lastResult != null ? lastResult : grosswage.getResult();
+        this.cube = grosswage.getCube();
     }
 
+    /**
+     * @return The net wage in pesos. It is computed in whole centavos, so it needs no rounding.
+     */
     @Override
     public double calculate() {
-        double totalDeductions = getTotalDeductions();
-        double withholdingTax = getWithholdingTax();
-        double netWage = gross - totalDeductions - withholdingTax;
-        return Double.parseDouble(decimalFormat.format(netWage));
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.NET));
     }
 
-    public double getSSSDeduction() {
-        if (sssDeduction == null) {
-            Calculation sss = new SSS(grosswage);
-            sssDeduction = sss.calculate() / 4; // Weekly calculation (monthly/4)
+    /**
+     * @return Every value of the payroll pipeline, evaluated once for this employee-week
+     *         from the Grosswage result at construction.
+     */
+    public PayrollPipeline.Evaluation getEvaluation() {
+        if (evaluation == null) {
+            evaluation = pipeline.evaluate(cube, grossResult);
         }
-        return sssDeduction;
+        return evaluation;
     }
 
-    public double getPhilhealthDeduction() {
-        if (philhealthDeduction == null) {
-            Calculation philhealth = new Philhealth(grosswage);
-            philhealthDeduction = philhealth.calculate() / 4; // Weekly calculation
-        }
-        return philhealthDeduction;
-    }
+    // Amounts of the evaluation in pesos
 
-    public double getPagIbigDeduction() {
-        if (pagibigDeduction == null) {
-            Calculation pagibig = new Pagibig(grosswage);
-            pagibigDeduction = pagibig.calculate() / 4; // Weekly calculation
-        }
-        return pagibigDeduction;
+    public double getSSSDeduction() {
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.SSS));
     }
 
-    public double getLateDeduction() {
-        if (lateDeduction == null) {
-            lateDeduction = calculateWeeklyLatePenalty();
-        }
-        return lateDeduction;
+    public double getPhilhealthDeduction() {
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.PHILHEALTH));
     }
 
-    private double calculateWeeklyLatePenalty() {
-        List<AttendanceRecord> records = AttendanceRecord.getAttendanceRecords();
-        double totalPenalty = 0.0;
-        final double minuteRate = grosswage.getHourlyRate() / 60.0;
-        final LocalTime shiftStart = grosswage.getShiftStartTime();
-        final LocalTime lateThreshold = shiftStart.plusMinutes(15); // Using direct value instead of constant
-
-        for (AttendanceRecord record : records) {
-            if (record.getId().equals(employeeID) && isDateInTargetWeek(record.getDate())) {
-                LocalTime timeIn = record.getTimeIn();
-                if (timeIn != null && timeIn.isAfter(lateThreshold)) {
-                    long minutesLate = java.time.Duration.between(lateThreshold, timeIn).toMinutes();
-                    totalPenalty += minuteRate * minutesLate;
-                }
-            }
-        }
-        return totalPenalty;
+    public double getPagIbigDeduction() {
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.PAGIBIG));
     }
 
-    private boolean isDateInTargetWeek(LocalDate date) {
-        if (date.getYear() != targetYear || date.getMonthValue() != targetMonth) {
-            return false;
-        }
-        int weekOfMonth = ((date.getDayOfMonth() - 1) / 7) + 1;
-        return weekOfMonth == week;
+    public double getLateDeduction() {
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.LATE));
     }
 
     public double getTotalDeductions() {
-        return getSSSDeduction() + 
-               getPhilhealthDeduction() + 
-               getPagIbigDeduction() + 
-               getLateDeduction();
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.DEDUCTIONS));
     }
 
     public double getTaxableIncome() {
-        return gross - getTotalDeductions();
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.TAXABLE));
     }
 
     public double getWithholdingTax() {
-        if (withholdingTax == null) {
-            double taxableIncome = getTaxableIncome();
-            WithholdingTax withholdingTaxCalc = new WithholdingTax(grosswage, taxableIncome);
-            withholdingTax = withholdingTaxCalc.calculate();
-        }
-        return withholdingTax;
+        return Money.toPesos(getEvaluation().get(PayrollPipeline.TAX));
     }
 
     // Getters
@@ -5,14 +5,22 @@ package com.mycompany.motorph;
 
 public class Pagibig extends Calculation {
     private double pagibigDeduction; // Pag-IBIG deduction amount
-    private final Grosswage grosswage; // Gross wage object for calculation
+    private final GrossResult grossResult; // Gross wage the deduction is based on
 
     /**
      * Constructor for Pagibig.
      * @param grosswage The Grosswage object containing the employee's gross wage.
      */
     public Pagibig(Grosswage grosswage) {
-        this.grosswage = grosswage;
+        this(grosswage.getResult());
+    }
+
+    /**
+     * Constructor for Pagibig from an already computed gross wage.
+     * @param grossResult The employee's gross wage.
+     */
+    public Pagibig(GrossResult grossResult) {
+        this.grossResult = grossResult;
     }
 
     /**
@@ -21,21 +29,39 @@ public class Pagibig extends Calculation {
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
+        int payDay = StatutoryTables.payWeekEpochDay(grossResult.year(), grossResult.month(), grossResult.week());
+        pagibigDeduction = Money.toPesos(contributionFor(grossResult.gross(), payDay));
+        return pagibigDeduction;
+    }
 
-        double pagibig;
-        if (gross > 1000.00 && gross <= 1500.00) {
-            pagibig = gross * 0.03;
-        } else {
-            pagibig = gross * 0.04;
-        }
+    /**
+     * Calculates the Pag-IBIG contribution for a gross wage with the table in effect today.
+     * @param gross The gross wage in centavos.
+     * @return The Pag-IBIG deduction amount in centavos.
+     */
+    public static long contributionFor(long gross) {
+        return contributionFor(gross, StatutoryTables.today());
+    }
 
-        if (pagibig > 100) {
-            pagibig = 100;
-        }
+    /**
+     * Calculates the Pag-IBIG contribution for a gross wage with the table in effect on a day.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static long contributionFor(long gross, int epochDay) {
+        return StatutoryTables.current().tableFor(StatutoryTables.Kind.PAGIBIG, epochDay).amountFor(gross);
+    }
 
-        pagibigDeduction = pagibig;
-        return pagibigDeduction;
+    /**
+     * Calculates the Pag-IBIG contributions for several gross wages at once with the table in
+     * effect on a day, for batch runs. Uses the Vector API when it is available, see
+     * {@link StatutoryTable#amountsFor(long[], long[], int)}.
+     * @param grossWages Gross wages in centavos.
+     * @param out Receives the contribution in centavos for each gross wage, at the same index.
+     * @param count Number of gross wages to compute, from index 0.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static void contributionsFor(long[] grossWages, long[] out, int count, int epochDay) {
+        StatutoryTables.current().tableFor(StatutoryTables.Kind.PAGIBIG, epochDay).amountsFor(grossWages, out, count);
     }
 
     /**
@@ -0,0 +1,372 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Attendance totals per employee and pay week, built once per attendance store and
+ * holiday calendar.
+ *
+ * Two week definitions are in use and both are pre-aggregated:
+ * <ul>
+ * <li>Pay weeks as defined by {@link AttendanceRecord#isDateInTargetWeek} (weeks 0-5),
+ *     used for hours and gross pay: regular and overtime minutes, the same minutes weighted
+ *     by holiday premium percent, the minutes worked on each kind of holiday, and the row
+ *     count.</li>
+ * <li>Calendar weeks covering days 7N-6 to 7N of a month (weeks 1-5), used for late
+ *     deductions: minutes late after the grace period, for each standard shift start.</li>
+ * </ul>
+ * Totals are kept per employee for the months they have rows in. A lookup finds the
+ * month directly when the employee's months have no gaps, then reads a single array
+ * element. Late minutes for a non-standard shift start fall back to scanning the week's
+ * rows.
+ */
+public class PayWeekCube {
+    private static final int PAY_WEEKS = 6;       // Weeks 0-5
+    private static final int CALENDAR_WEEKS = 5;  // Weeks 1-5
+    private static final int GRACE_PERIOD_MINUTES = 15;
+    private static final int[] SHIFT_STARTS = {8 * 60, 9 * 60, 10 * 60};
+
+    // Pay week columns, each PAY_WEEKS cells of a month
+    private static final int ROW_COUNTS = 0;
+    private static final int REGULAR_MINUTES = 1;
+    private static final int OVERTIME_MINUTES = 2;
+    private static final int REGULAR_PREMIUM_MINUTES = 3;
+    private static final int OVERTIME_PREMIUM_MINUTES = 4;
+    private static final int REGULAR_HOLIDAY_REGULAR_MINUTES = 5;
+    private static final int REGULAR_HOLIDAY_OVERTIME_MINUTES = 6;
+    private static final int SPECIAL_DAY_REGULAR_MINUTES = 7;
+    private static final int SPECIAL_DAY_OVERTIME_MINUTES = 8;
+    private static final int PAY_COLUMNS = 9;
+
+    // Cells of a month: the pay week columns, then CALENDAR_WEEKS late minute cells per shift
+    private static final int LATE_CELLS = PAY_COLUMNS * PAY_WEEKS;
+    private static final int MONTH_CELLS = LATE_CELLS + SHIFT_STARTS.length * CALENDAR_WEEKS;
+
+    private static final Months NO_MONTHS = new Months(new int[0]);
+
+    private static final AtomicReference<PayWeekCube> current = new AtomicReference<>();
+
+    private final AttendanceStore store;
+    private final HolidayCalendar holidays;
+    private final Months[] months;  // Each key's totals
+
+    /**
+     * One employee's totals for the months they have rows in, so a stray date years away
+     * adds one month rather than every month in between. Never modified once built, so
+     * cubes of later stores share the totals of unchanged employees.
+     */
+    private static final class Months {
+        final int[] months;  // year * 12 + month - 1, ascending
+        final int[] cells;   // MONTH_CELLS per month
+
+        Months(int[] months) {
+            this.months = months;
+            this.cells = new int[months.length * MONTH_CELLS];
+        }
+
+        /**
+         * @return Position of a month, or -1 if there are no rows for it.
+         */
+        int indexOf(int month) {
+            // Months without gaps are found directly
+            int guess = months.length == 0 ? -1 : month - months[0];
+            if (guess >= 0 && guess < months.length && months[guess] == month) {
+                return guess;
+            }
+            int index = Arrays.binarySearch(months, month);
+            return index < 0 ? -1 : index;
+        }
+    }
+
+    private PayWeekCube(AttendanceStore store, HolidayCalendar holidays, Months[] months) {
+        this.store = store;
+        this.holidays = holidays;
+        this.months = months;
+    }
+
+    private static PayWeekCube build(AttendanceStore store, HolidayCalendar holidays) {
+        Months[] months = new Months[store.employeeCount()];
+        for (int key = 0; key < months.length; key++) {
+            months[key] = aggregate(store, holidays, key, null, null);
+        }
+        return new PayWeekCube(store, holidays, months);
+    }
+
+    /**
+     * Aggregates an employee's rows by month. Months of the previous totals without a
+     * changed day are copied rather than aggregated again.
+     * @param previous The employee's totals in an earlier cube, or null.
+     * @param changedDays Sorted epoch days whose rows changed since the earlier cube.
+     */
+    private static Months aggregate(AttendanceStore store, HolidayCalendar holidays, int key,
+                                    Months previous, int[] changedDays) {
+        int rowCount = store.rowCount(key);
+        if (rowCount == 0) {
+            return NO_MONTHS;
+        }
+        Months totals = new Months(monthsWithRows(store, key));
+        if (previous == null) {
+            addRows(store, holidays, key, 0, rowCount, totals);
+            return totals;
+        }
+
+        boolean[] changedMonths = new boolean[totals.months.length];
+        for (int day : changedDays) {
+            int month = totals.indexOf(monthOf(day));
+            if (month >= 0) {
+                changedMonths[month] = true;
+            }
+        }
+        for (int month = 0; month < totals.months.length; month++) {
+            int previousMonth = previous.indexOf(totals.months[month]);
+            if (!changedMonths[month] && previousMonth >= 0) {
+                System.arraycopy(previous.cells, previousMonth * MONTH_CELLS,
+                    totals.cells, month * MONTH_CELLS, MONTH_CELLS);
+            } else {
+                LocalDate start = LocalDate.of(Math.floorDiv(totals.months[month], 12),
+                    Math.floorMod(totals.months[month], 12) + 1, 1);
+                int from = store.rangeStart(key, (int) start.toEpochDay());
+                int to = store.rangeEnd(key, (int) start.toEpochDay() + start.lengthOfMonth() - 1);
+                addRows(store, holidays, key, from, to, totals);
+            }
+        }
+        return totals;
+    }
+
+    // Rows are sorted by date, so the month only has to be resolved when it changes
+    private static int[] monthsWithRows(AttendanceStore store, int key) {
+        int[] months = new int[8];
+        int count = 0;
+        int monthEnd = Integer.MIN_VALUE;
+        for (int row = 0, end = store.rowCount(key); row < end; row++) {
+            int day = store.epochDay(key, row);
+            if (day >= monthEnd) {
+                LocalDate date = LocalDate.ofEpochDay(day).withDayOfMonth(1);
+                monthEnd = (int) date.toEpochDay() + date.lengthOfMonth();
+                if (count == months.length) {
+                    months = Arrays.copyOf(months, count * 2);
+                }
+                months[count++] = date.getYear() * 12 + date.getMonthValue() - 1;
+            }
+        }
+        return Arrays.copyOf(months, count);
+    }
+
+    // Adds rows to months already in the totals
+    private static void addRows(AttendanceStore store, HolidayCalendar holidays, int key, int fromRow, int toRow,
+                                Months totals) {
+        int[] cells = totals.cells;
+        int monthStart = 0;
+        int monthEnd = 0;
+        int monthBase = 0;
+        int firstDayOfWeek = 0;
+
+        for (int row = fromRow; row < toRow; row++) {
+            int day = store.epochDay(key, row);
+            if (day < monthStart || day >= monthEnd) {
+                LocalDate date = LocalDate.ofEpochDay(day).withDayOfMonth(1);
+                monthStart = (int) date.toEpochDay();
+                monthEnd = monthStart + date.lengthOfMonth();
+                monthBase = totals.indexOf(monthOf(monthStart)) * MONTH_CELLS;
+                firstDayOfWeek = date.getDayOfWeek().getValue();
+            }
+
+            int dayOfMonth = day - monthStart + 1;
+            int dayOfWeek = (firstDayOfWeek + dayOfMonth - 2) % 7 + 1;
+            int payCell = monthBase + (dayOfMonth - dayOfWeek + 10) / 7;
+            int regular = store.regularMinutes(key, row);
+            int overtime = store.overtimeMinutes(key, row);
+            int premiumPercent = holidays.premiumPercent(day);
+            byte holidayKind = holidays.kind(day);
+
+            cells[payCell + ROW_COUNTS * PAY_WEEKS]++;
+            cells[payCell + REGULAR_MINUTES * PAY_WEEKS] += regular;
+            cells[payCell + OVERTIME_MINUTES * PAY_WEEKS] += overtime;
+            cells[payCell + REGULAR_PREMIUM_MINUTES * PAY_WEEKS] += premiumPercent * regular;
+            cells[payCell + OVERTIME_PREMIUM_MINUTES * PAY_WEEKS] += premiumPercent * overtime;
+            if (holidayKind == HolidayCalendar.REGULAR_HOLIDAY) {
+                cells[payCell + REGULAR_HOLIDAY_REGULAR_MINUTES * PAY_WEEKS] += regular;
+                cells[payCell + REGULAR_HOLIDAY_OVERTIME_MINUTES * PAY_WEEKS] += overtime;
+            } else if (holidayKind == HolidayCalendar.SPECIAL_NON_WORKING_DAY) {
+                cells[payCell + SPECIAL_DAY_REGULAR_MINUTES * PAY_WEEKS] += regular;
+                cells[payCell + SPECIAL_DAY_OVERTIME_MINUTES * PAY_WEEKS] += overtime;
+            }
+
+            int lateCell = monthBase + LATE_CELLS + (dayOfMonth - 1) / 7;
+            for (int shift = 0; shift < SHIFT_STARTS.length; shift++) {
+                int late = store.minuteIn(key, row) - SHIFT_STARTS[shift] - GRACE_PERIOD_MINUTES;
+                if (late > 0) {
+                    cells[lateCell + shift * CALENDAR_WEEKS] += late;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The cube of a store with the holiday calendar in use, reusing the last built
+     *         cube if it belongs to the same store and calendar.
+     */
+    public static PayWeekCube forStore(AttendanceStore store) {
+        HolidayCalendar holidays = HolidayChecker.getCalendar();
+        PayWeekCube cube = current.get();
+        if (cube == null || cube.store.version() != store.version() || cube.holidays != holidays) {
+            cube = build(store, holidays);
+            current.set(cube);
+        }
+        return cube;
+    }
+
+    /**
+     * Builds the cube of a newer store from the cube of an earlier one, aggregating only the
+     * changed months of the given employees again. Other employees share their totals with
+     * the earlier cube, so the cost depends on the changed rows and not on the total. Falls
+     * back to a full build when the holiday calendar in use is not the one the earlier cube
+     * was built with.
+     * @param changedDays Sorted epoch days whose rows differ between the stores, by employee
+     *                    ID, as found by {@link AttendanceStore#changedDaysSince}.
+     * @return The new cube, which {@link #forStore} returns from then on.
+     */
+    public static PayWeekCube update(PayWeekCube previous, AttendanceStore store, Map<String, int[]> changedDays) {
+        HolidayCalendar holidays = HolidayChecker.getCalendar();
+        PayWeekCube cube;
+        if (previous == null || previous.holidays != holidays) {
+            cube = build(store, holidays);
+        } else {
+            Months[] months = new Months[store.employeeCount()];
+            for (int key = 0; key < months.length; key++) {
+                // A reload may renumber employees, so earlier totals are found by ID
+                String employeeId = store.employeeId(key);
+                int previousKey = key < previous.months.length && previous.store.employeeId(key).equals(employeeId)
+                    ? key : previous.store.keyOf(employeeId);
+                int[] days = changedDays.get(employeeId);
+                if (previousKey < 0) {
+                    months[key] = aggregate(store, holidays, key, null, null);
+                } else if (days == null) {
+                    months[key] = previous.months[previousKey];
+                } else {
+                    months[key] = aggregate(store, holidays, key, previous.months[previousKey], days);
+                }
+            }
+            cube = new PayWeekCube(store, holidays, months);
+        }
+        current.set(cube);
+        return cube;
+    }
+
+    public AttendanceStore getStore() { return store; }
+
+    /**
+     * @return The holiday calendar the premiums and holiday minutes were counted with.
+     */
+    public HolidayCalendar getHolidays() { return holidays; }
+
+    // ================== PAY WEEKS ================== //
+
+    /**
+     * @return Number of attendance rows in a pay week.
+     */
+    public int rowCount(int key, int year, int month, int week) {
+        return read(ROW_COUNTS, key, year, month, week);
+    }
+
+    public int regularMinutes(int key, int year, int month, int week) {
+        return read(REGULAR_MINUTES, key, year, month, week);
+    }
+
+    public int overtimeMinutes(int key, int year, int month, int week) {
+        return read(OVERTIME_MINUTES, key, year, month, week);
+    }
+
+    /**
+     * @return Regular minutes worked on holidays, each multiplied by the day's premium percent.
+     */
+    public int regularPremiumMinutes(int key, int year, int month, int week) {
+        return read(REGULAR_PREMIUM_MINUTES, key, year, month, week);
+    }
+
+    /**
+     * @return Overtime minutes worked on holidays, each multiplied by the day's premium percent.
+     */
+    public int overtimePremiumMinutes(int key, int year, int month, int week) {
+        return read(OVERTIME_PREMIUM_MINUTES, key, year, month, week);
+    }
+
+    /**
+     * @return Minutes worked on regular holidays, counting either regular or overtime minutes.
+     */
+    public int regularHolidayMinutes(int key, int year, int month, int week, boolean overtime) {
+        return read(overtime ? REGULAR_HOLIDAY_OVERTIME_MINUTES : REGULAR_HOLIDAY_REGULAR_MINUTES,
+            key, year, month, week);
+    }
+
+    /**
+     * @return Minutes worked on special non-working days, counting either regular or overtime minutes.
+     */
+    public int specialDayMinutes(int key, int year, int month, int week, boolean overtime) {
+        return read(overtime ? SPECIAL_DAY_OVERTIME_MINUTES : SPECIAL_DAY_REGULAR_MINUTES,
+            key, year, month, week);
+    }
+
+    private int read(int column, int key, int year, int month, int week) {
+        int monthBase = monthBase(key, year, month);
+        if (monthBase < 0 || week < 0 || week >= PAY_WEEKS) {
+            return 0;
+        }
+        return months[key].cells[monthBase + column * PAY_WEEKS + week];
+    }
+
+    // ================== CALENDAR WEEKS ================== //
+
+    /**
+     * Total minutes clocked in after the grace period of a shift start, over days 7N-6 to 7N
+     * of a month.
+     * @param week Calendar week of the month (1-5).
+     * @param shiftStartMinute Shift start as minute of the day.
+     */
+    public int lateMinutes(int key, int year, int month, int week, int shiftStartMinute) {
+        int monthBase = monthBase(key, year, month);
+        if (monthBase < 0 || week < 1 || week > CALENDAR_WEEKS) {
+            return 0;
+        }
+        for (int shift = 0; shift < SHIFT_STARTS.length; shift++) {
+            if (SHIFT_STARTS[shift] == shiftStartMinute) {
+                return months[key].cells[monthBase + LATE_CELLS + shift * CALENDAR_WEEKS + week - 1];
+            }
+        }
+        return scanLateMinutes(key, year, month, week, shiftStartMinute);
+    }
+
+    private int scanLateMinutes(int key, int year, int month, int week, int shiftStartMinute) {
+        int monthStart = (int) LocalDate.of(year, month, 1).toEpochDay();
+        int threshold = shiftStartMinute + GRACE_PERIOD_MINUTES;
+        int total = 0;
+        for (int row = store.rangeStart(key, monthStart + (week - 1) * 7),
+                 end = store.rangeEnd(key, monthStart + week * 7 - 1); row < end; row++) {
+            if (monthOf(store.epochDay(key, row)) == year * 12 + month - 1) {
+                total += Math.max(0, store.minuteIn(key, row) - threshold);
+            }
+        }
+        return total;
+    }
+
+    // ================== HELPERS ================== //
+
+    /**
+     * @return Offset of an employee's month in their cells, or -1 if there are no rows for it.
+     */
+    private int monthBase(int key, int year, int month) {
+        if (key < 0 || key >= months.length) {
+            return -1;
+        }
+        int monthIndex = months[key].indexOf(year * 12 + month - 1);
+        return monthIndex < 0 ? -1 : monthIndex * MONTH_CELLS;
+    }
+
+    private static int monthOf(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.motorph;
+
+/**
+ * Caller-owned storage for the payroll of many employees, one slot per employee, held
+ * in primitive columns so a batch run can fill it without creating objects.
+ * A buffer can be reused for run after run; each run overwrites the slots it computes.
+ * Amounts are in centavos (see {@link Money}).
+ */
+public final class PayrollBuffer {
+    private final boolean[] paid;
+    private final int[] regularMinutes;
+    private final int[] overtimeMinutes;
+    private final long[] regularPay;
+    private final long[] overtimePay;
+    private final long[] holidayPay;
+    private final long[] sssDeduction;
+    private final long[] philhealthDeduction;
+    private final long[] pagibigDeduction;
+    private final long[] lateDeduction;
+    private final long[] withholdingTax;
+
+    public PayrollBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        paid = new boolean[capacity];
+        regularMinutes = new int[capacity];
+        overtimeMinutes = new int[capacity];
+        regularPay = new long[capacity];
+        overtimePay = new long[capacity];
+        holidayPay = new long[capacity];
+        sssDeduction = new long[capacity];
+        philhealthDeduction = new long[capacity];
+        pagibigDeduction = new long[capacity];
+        lateDeduction = new long[capacity];
+        withholdingTax = new long[capacity];
+    }
+
+    public int capacity() {
+        return paid.length;
+    }
+
+    void set(int slot, int regularMinutes, int overtimeMinutes, long regularPay, long overtimePay,
+             long holidayPay, long sssDeduction, long philhealthDeduction, long pagibigDeduction,
+             long lateDeduction, long withholdingTax) {
+        this.paid[slot] = true;
+        this.regularMinutes[slot] = regularMinutes;
+        this.overtimeMinutes[slot] = overtimeMinutes;
+        this.regularPay[slot] = regularPay;
+        this.overtimePay[slot] = overtimePay;
+        this.holidayPay[slot] = holidayPay;
+        this.sssDeduction[slot] = sssDeduction;
+        this.philhealthDeduction[slot] = philhealthDeduction;
+        this.pagibigDeduction[slot] = pagibigDeduction;
+        this.lateDeduction[slot] = lateDeduction;
+        this.withholdingTax[slot] = withholdingTax;
+    }
+
+    /**
+     * Marks a slot as not paid and zeroes its amounts.
+     */
+    void clear(int slot) {
+        set(slot, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        paid[slot] = false;
+    }
+
+    /**
+     * @return Whether the employee in the slot has a payslip, i.e. hours worked and a valid rate.
+     */
+    public boolean isPaid(int slot) { return paid[slot]; }
+    public int regularMinutes(int slot) { return regularMinutes[slot]; }
+    public int overtimeMinutes(int slot) { return overtimeMinutes[slot]; }
+    public long regularPay(int slot) { return regularPay[slot]; }
+    public long overtimePay(int slot) { return overtimePay[slot]; }
+    public long holidayPay(int slot) { return holidayPay[slot]; }
+    public long sssDeduction(int slot) { return sssDeduction[slot]; }
+    public long philhealthDeduction(int slot) { return philhealthDeduction[slot]; }
+    public long pagibigDeduction(int slot) { return pagibigDeduction[slot]; }
+    public long lateDeduction(int slot) { return lateDeduction[slot]; }
+    public long withholdingTax(int slot) { return withholdingTax[slot]; }
+
+    public long gross(int slot) {
+        return regularPay[slot] + overtimePay[slot];
+    }
+
+    /**
+     * @return SSS, PhilHealth, Pag-IBIG and late deductions, without tax.
+     */
+    public long totalDeductions(int slot) {
+        return sssDeduction[slot] + philhealthDeduction[slot] + pagibigDeduction[slot] + lateDeduction[slot];
+    }
+
+    public long netWage(int slot) {
+        return gross(slot) - totalDeductions(slot) - withholdingTax[slot];
+    }
+}
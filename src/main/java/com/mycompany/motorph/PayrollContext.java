@@ -0,0 +1,98 @@
+package com.mycompany.motorph;
+
+/**
+ * Working state for computing weekly payslips one employee after another without creating
+ * objects. A context is reset once per run with the weekly totals and pay week, then
+ * reused for every employee; each result is written into a slot of a {@link PayrollBuffer}.
+ *
+ * The amounts are those of the standard {@link PayrollPipeline}, computed with the same
+ * formulas but without the pipeline's per-employee result objects. Pipelines with extra
+ * deductions go through {@link PayrollRun#run(java.util.List, int, int, int)} instead.
+ *
+ * A context is not thread-safe; {@link #current()} gives each thread its own.
+ */
+public final class PayrollContext {
+    private static final ThreadLocal<PayrollContext> contexts = ThreadLocal.withInitial(PayrollContext::new);
+
+    private PayWeekCube cube;
+    private int year;
+    private int month;
+    private int week;
+    private StatutoryTable sssTable;
+    private StatutoryTable philhealthTable;
+    private StatutoryTable pagibigTable;
+    private StatutoryTable taxTable;
+
+    /**
+     * @return The calling thread's context.
+     */
+    public static PayrollContext current() {
+        return contexts.get();
+    }
+
+    /**
+     * Prepares the context for a run over one pay week, with the statutory tables in
+     * effect for that week. Tables swapped in later apply from the next reset.
+     * @param week Week of the month (1-4).
+     */
+    public PayrollContext reset(PayWeekCube cube, int year, int month, int week) {
+        if (cube == null) {
+            throw new IllegalArgumentException("Weekly totals cannot be null");
+        }
+        this.cube = cube;
+        this.year = year;
+        this.month = month;
+        this.week = week;
+
+        StatutoryTables tables = StatutoryTables.current();
+        int payDay = StatutoryTables.payWeekEpochDay(year, month, week);
+        this.sssTable = tables.tableFor(StatutoryTables.Kind.SSS, payDay);
+        this.philhealthTable = tables.tableFor(StatutoryTables.Kind.PHILHEALTH, payDay);
+        this.pagibigTable = tables.tableFor(StatutoryTables.Kind.PAGIBIG, payDay);
+        this.taxTable = tables.tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, payDay);
+        return this;
+    }
+
+    /**
+     * Computes an employee's payslip for the week the context was reset to.
+     * @return Whether the employee is paid; employees without hours or a valid rate are
+     *         left out as in PayrollRun, and their slot is cleared.
+     */
+    public boolean compute(Employee employee, PayrollBuffer out, int slot) {
+        if (cube == null) {
+            throw new IllegalStateException("Payroll context used before reset");
+        }
+        long hourlyRate = employee == null ? 0 : Money.ofPesos(employee.getHourlyRate());
+        if (hourlyRate <= 0) {
+            out.clear(slot);
+            return false;
+        }
+
+        int key = cube.getStore().keyOf(employee.getEmployeeNumber());
+        int regularMinutes = cube.regularMinutes(key, year, month, week);
+        int overtimeMinutes = cube.overtimeMinutes(key, year, month, week);
+        if (regularMinutes + overtimeMinutes <= 0) {
+            out.clear(slot);
+            return false;
+        }
+        int regularPremiumMinutes = cube.regularPremiumMinutes(key, year, month, week);
+        int overtimePremiumMinutes = cube.overtimePremiumMinutes(key, year, month, week);
+
+        long regularPay = GrossResult.regularPay(regularMinutes, regularPremiumMinutes, hourlyRate);
+        long overtimePay = GrossResult.overtimePay(overtimeMinutes, hourlyRate, employee.isNightShift());
+        long holidayPay = GrossResult.holidayPay(regularPremiumMinutes, overtimePremiumMinutes, hourlyRate);
+        long gross = regularPay + overtimePay;
+
+        long sssDeduction = PayrollPipeline.weeklyShare(sssTable.amountFor(gross));
+        long philhealthDeduction = PayrollPipeline.weeklyShare(philhealthTable.amountFor(gross));
+        long pagibigDeduction = PayrollPipeline.weeklyShare(pagibigTable.amountFor(gross));
+        long lateDeduction = LatePenalty.deductionFor(hourlyRate, cube.lateMinutes(key, year, month, week,
+            AttendanceRecord.toMinuteOfDay(employee.getShiftStartTime())));
+        long withholdingTax = taxTable.amountFor(
+            gross - sssDeduction - philhealthDeduction - pagibigDeduction - lateDeduction);
+
+        out.set(slot, regularMinutes, overtimeMinutes, regularPay, overtimePay, holidayPay,
+            sssDeduction, philhealthDeduction, pagibigDeduction, lateDeduction, withholdingTax);
+        return true;
+    }
+}
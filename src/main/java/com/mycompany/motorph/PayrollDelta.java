@@ -0,0 +1,69 @@
+package com.mycompany.motorph;
+
+import java.util.List;
+
+/**
+ * The payslips changed by an attendance update, as reported by {@link PayrollLedger#refresh}.
+ * Amounts are in centavos (see {@link Money}).
+ * @param fromVersion Attendance store version the ledger held before the update.
+ * @param toVersion Attendance store version the ledger holds after the update.
+ * @param changes Changed payslips, by employee and then week.
+ * @param yearToDate Updated year totals of every employee and year with a changed payslip.
+ */
+public record PayrollDelta(
+        long fromVersion,
+        long toVersion,
+        List<PayslipChange> changes,
+        List<YearToDate> yearToDate) {
+
+    /**
+     * A payslip before and after an update. Before is null for a new payslip and after is
+     * null for a payslip that no longer has any hours.
+     */
+    public record PayslipChange(PayrollResult before, PayrollResult after) {
+        public PayrollResult current() {
+            return after != null ? after : before;
+        }
+
+        public long netWageChange() {
+            return (after == null ? 0 : after.netWage()) - (before == null ? 0 : before.netWage());
+        }
+    }
+
+    /**
+     * Sums of an employee's weekly payslips in a year.
+     */
+    public record YearToDate(String employeeID, int year, long gross, long deductions,
+                             long withholdingTax, long netWage) {
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public void printReport() {
+        System.out.println("\nPayroll Changes");
+        System.out.println("==========================");
+        System.out.printf("Attendance version %d -> %d, %d payslip(s) changed%n",
+            fromVersion, toVersion, changes.size());
+        System.out.println("--------------------------");
+        for (PayslipChange change : changes) {
+            PayrollResult slip = change.current();
+            System.out.printf("%s %-25s %d-%02d week %d  net %s -> %s (%+.2f)%n",
+                slip.employeeID(), slip.employeeName(), slip.year(), slip.month(), slip.week(),
+                change.before() == null ? "-" : String.format("%.2f", Money.toPesos(change.before().netWage())),
+                change.after() == null ? "-" : String.format("%.2f", Money.toPesos(change.after().netWage())),
+                Money.toPesos(change.netWageChange()));
+        }
+        if (!yearToDate.isEmpty()) {
+            System.out.println("--------------------------");
+            for (YearToDate totals : yearToDate) {
+                System.out.printf("%s %d year to date: gross %.2f, deductions %.2f, tax %.2f, net %.2f%n",
+                    totals.employeeID(), totals.year(), Money.toPesos(totals.gross()),
+                    Money.toPesos(totals.deductions()), Money.toPesos(totals.withholdingTax()),
+                    Money.toPesos(totals.netWage()));
+            }
+        }
+        System.out.println("==========================");
+    }
+}
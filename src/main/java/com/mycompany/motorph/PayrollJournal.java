@@ -0,0 +1,254 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of a batch payroll run, used to resume the run after a crash and
+ * kept afterwards as its audit trail.
+ *
+ * The journal is a UTF-8 text file with one tab-separated entry per line, each ending
+ * in the CRC32 of the rest of the line:
+ * <pre>
+ * RUN      year, month, week, start time       first line; identifies the pay week
+ * RESUME   time                                a restart picked the run up again
+ * PAID     employee ID, name, rate, hours and amounts (centavos) of a PayrollResult
+ * SKIPPED  employee ID                         employee without hours or a valid rate
+ * CLOSED   time, employees recorded so far
+ * </pre>
+ * Each entry is written to the file as soon as the employee is done, so it survives the
+ * JVM dying. The file is forced to disk every {@value #FORCE_EVERY_ENTRIES} entries, at
+ * most {@value #FORCE_INTERVAL_MILLIS} ms after an unforced entry is written (checked
+ * on the next write), and on close. A partially written last line is dropped on reopen.
+ */
+public final class PayrollJournal implements AutoCloseable {
+    private static final int FORCE_EVERY_ENTRIES = 64;
+    private static final long FORCE_INTERVAL_MILLIS = 1000;
+
+    private final Path path;
+    private final int year;
+    private final int month;
+    private final int week;
+    private final FileChannel channel;
+
+    // Employees recorded in this run; the value is null for skipped employees
+    private final Map<String, PayrollResult> recorded = new HashMap<>();
+
+    private int unforcedEntries;
+    private long lastForce = System.currentTimeMillis();
+    private boolean closed;
+
+    private PayrollJournal(Path path, int year, int month, int week, FileChannel channel) {
+        this.path = path;
+        this.year = year;
+        this.month = month;
+        this.week = week;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal of a pay week's run, creating it or resuming the run it records.
+     * @throws IllegalStateException If the journal records a run for another pay week.
+     */
+    public static PayrollJournal open(Path path, int year, int month, int week) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PayrollJournal journal = new PayrollJournal(path, year, month, week, channel);
+        try {
+            if (channel.size() == 0) {
+                journal.append("RUN", year, month, week, Instant.now());
+            } else {
+                journal.replay();
+                journal.append("RESUME", Instant.now());
+            }
+            journal.force();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    public Path getPath() { return path; }
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public int getWeek() { return week; }
+
+    /**
+     * @return Whether the employee was already paid or skipped in this run.
+     */
+    public synchronized boolean isRecorded(String employeeID) {
+        return recorded.containsKey(employeeID);
+    }
+
+    /**
+     * @return The recorded payslip of an employee, or null if the employee was skipped or
+     *         is not recorded yet.
+     */
+    public synchronized PayrollResult getResult(String employeeID) {
+        return recorded.get(employeeID);
+    }
+
+    public synchronized int getRecordedCount() {
+        return recorded.size();
+    }
+
+    public synchronized void recordPaid(PayrollResult result) throws IOException {
+        if (result.year() != year || result.month() != month || result.week() != week) {
+            throw new IllegalArgumentException("Payslip for " + result.year() + "-" + result.month()
+                + " week " + result.week() + " does not belong to this run");
+        }
+        append("PAID", result.employeeID(), result.employeeName(), result.hourlyRate(),
+            result.regularHours(), result.overtimeHours(), result.regularPay(), result.overtimePay(),
+            result.holidayPay(), result.gross(), result.sssDeduction(), result.philhealthDeduction(),
+            result.pagibigDeduction(), result.lateDeduction(), result.withholdingTax());
+        recorded.put(result.employeeID(), result);
+    }
+
+    public synchronized void recordSkipped(String employeeID) throws IOException {
+        append("SKIPPED", employeeID);
+        recorded.put(employeeID, null);
+    }
+
+    /**
+     * Records the close and forces the journal to disk.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            append("CLOSED", Instant.now(), recorded.size());
+            force();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    // ================== WRITING ================== //
+
+    private void append(String type, Object... fields) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Payroll journal is closed");
+        }
+        StringBuilder line = new StringBuilder(type);
+        for (Object field : fields) {
+            String value = String.valueOf(field);
+            if (value.indexOf('\t') >= 0 || value.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("Journal field cannot contain tabs or line breaks: " + value);
+            }
+            line.append('\t').append(value);
+        }
+        String checksum = Long.toHexString(checksum(line));
+        line.append('\t').append(checksum).append('\n');
+
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(line.toString());
+        channel.position(channel.size());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+
+        unforcedEntries++;
+        if (unforcedEntries >= FORCE_EVERY_ENTRIES
+                || System.currentTimeMillis() - lastForce >= FORCE_INTERVAL_MILLIS) {
+            force();
+        }
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        unforcedEntries = 0;
+        lastForce = System.currentTimeMillis();
+    }
+
+    private static long checksum(CharSequence content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // ================== RESUMING ================== //
+
+    /**
+     * Reads back the entries of an existing journal. Reading stops at the first line that
+     * is incomplete or fails its checksum, and the file is truncated there so new entries
+     * follow the last good one.
+     */
+    private void replay() throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        int lineStart = 0;
+        List<String[]> entries = new ArrayList<>();
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            String[] entry = parseEntry(new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8));
+            if (entry == null) {
+                break;
+            }
+            entries.add(entry);
+            lineStart = i + 1;
+        }
+        // Never truncate a file that is not a journal
+        if (entries.isEmpty() || !entries.get(0)[0].equals("RUN")) {
+            throw new IllegalStateException("Not a payroll journal: " + path);
+        }
+        // Nor one of another pay week
+        String[] run = entries.get(0);
+        if (Integer.parseInt(run[1]) != year || Integer.parseInt(run[2]) != month || Integer.parseInt(run[3]) != week) {
+            throw new IllegalStateException("Payroll journal " + path + " records the run for " + run[1] + "-"
+                + run[2] + " week " + run[3] + ", not " + year + "-" + month + " week " + week);
+        }
+        if (lineStart < content.length) {
+            System.err.println("Dropping incomplete payroll journal entry at byte " + lineStart + " of " + path);
+            channel.truncate(lineStart);
+        }
+
+        for (String[] entry : entries) {
+            switch (entry[0]) {
+                case "PAID" -> recorded.put(entry[1], new PayrollResult(entry[1], entry[2], year, month, week,
+                    Long.parseLong(entry[3]), Double.parseDouble(entry[4]), Double.parseDouble(entry[5]),
+                    Long.parseLong(entry[6]), Long.parseLong(entry[7]), Long.parseLong(entry[8]),
+                    Long.parseLong(entry[9]), Long.parseLong(entry[10]), Long.parseLong(entry[11]),
+                    Long.parseLong(entry[12]), Long.parseLong(entry[13]), Long.parseLong(entry[14])));
+                case "SKIPPED" -> recorded.put(entry[1], null);
+                default -> {
+                    // RUN, RESUME and CLOSED only make up the audit trail
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The fields of a journal line without its checksum, or null if the checksum
+     *         does not match.
+     */
+    private static String[] parseEntry(String line) {
+        int checksumStart = line.lastIndexOf('\t');
+        if (checksumStart < 0) {
+            return null;
+        }
+        String content = line.substring(0, checksumStart);
+        try {
+            if (Long.parseLong(line.substring(checksumStart + 1), 16) != checksum(content)) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return content.split("\t", -1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Weekly payslips of a list of employees, kept up to date as the attendance data changes.
+ *
+ * On each {@link #refresh} the ledger compares the loaded attendance with the store it
+ * last computed from and finds the days whose rows were added, corrected or removed. Each
+ * changed day touches at most two payslips of the employee: the pay week holding the day
+ * (gross pay, see {@link AttendanceRecord#isDateInTargetWeek}) and the week whose days
+ * 7N-6 to 7N hold it (late deduction). Only those payslips are computed again, and the
+ * weekly totals of only the changed employees are aggregated again. When the holiday
+ * calendar in use has changed since the last refresh, every payslip is computed again.
+ *
+ * Like PayrollRun, the ledger covers weeks 1-4 and leaves out weeks without hours.
+ */
+public class PayrollLedger {
+    private static final int WEEKS = 4;
+
+    private final Map<String, Employee> employeesById = new LinkedHashMap<>();
+
+    // Payslips by employee ID, then by (year * 12 + month - 1) * WEEKS + week - 1
+    private final Map<String, NavigableMap<Integer, PayrollResult>> payslips = new HashMap<>();
+
+    private AttendanceStore store = AttendanceStore.EMPTY;
+    private PayWeekCube cube;
+
+    /**
+     * @param employees Employees to keep payslips for, e.g. from EmployeeModelFromFile.
+     */
+    public PayrollLedger(List<Employee> employees) {
+        for (Employee employee : employees) {
+            if (employee != null) {
+                employeesById.put(employee.getEmployeeNumber(), employee);
+            }
+        }
+    }
+
+    /**
+     * Brings the payslips up to date with the loaded attendance. The first refresh computes
+     * every payslip; later ones only the payslips whose attendance changed.
+     * @return The payslips that changed and the updated year totals of their employees.
+     */
+    public synchronized PayrollDelta refresh() {
+        AttendanceStore latest = AttendanceRecord.getAttendanceStore();
+        long fromVersion = store.version();
+        if (latest.version() == fromVersion
+                && (cube == null || cube.getHolidays() == HolidayChecker.getCalendar())) {
+            return new PayrollDelta(fromVersion, fromVersion, List.of(), List.of());
+        }
+
+        Map<String, int[]> changedDays = latest.changedDaysSince(store);
+        PayWeekCube previous = cube;
+        cube = PayWeekCube.update(previous, latest, changedDays);
+        store = latest;
+        if (previous != null && previous.getHolidays() != cube.getHolidays()) {
+            // Any day's premium may have changed, so every day with rows counts as changed
+            latest.changedDaysSince(AttendanceStore.EMPTY).forEach((employeeID, days) ->
+                changedDays.merge(employeeID, days, PayrollLedger::concat));
+        }
+
+        List<PayrollDelta.PayslipChange> changes = new ArrayList<>();
+        List<PayrollDelta.YearToDate> yearToDate = new ArrayList<>();
+        for (Employee employee : employeesById.values()) {
+            int[] days = changedDays.get(employee.getEmployeeNumber());
+            if (days != null) {
+                recompute(employee, days, changes, yearToDate);
+            }
+        }
+        return new PayrollDelta(fromVersion, latest.version(), List.copyOf(changes), List.copyOf(yearToDate));
+    }
+
+    private void recompute(Employee employee, int[] days, List<PayrollDelta.PayslipChange> changes,
+                           List<PayrollDelta.YearToDate> yearToDate) {
+        NavigableMap<Integer, PayrollResult> slips =
+            payslips.computeIfAbsent(employee.getEmployeeNumber(), id -> new TreeMap<>());
+
+        TreeSet<Integer> years = new TreeSet<>();
+        for (int period : periodsOf(days)) {
+            int year = period / (12 * WEEKS);
+            int month = period / WEEKS % 12 + 1;
+            int week = period % WEEKS + 1;
+            PayrollResult before = slips.get(period);
+            PayrollResult after = PayrollRun.calculate(cube, employee, year, month, week);
+            if (!Objects.equals(before, after)) {
+                if (after == null) {
+                    slips.remove(period);
+                } else {
+                    slips.put(period, after);
+                }
+                changes.add(new PayrollDelta.PayslipChange(before, after));
+                years.add(year);
+            }
+        }
+        for (int year : years) {
+            yearToDate.add(yearToDate(employee.getEmployeeNumber(), year));
+        }
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] days = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, days, first.length, second.length);
+        return days;
+    }
+
+    /**
+     * @return Indexes of the weeks 1-4 whose pay or late deduction covers any of the days.
+     */
+    private static TreeSet<Integer> periodsOf(int[] days) {
+        TreeSet<Integer> periods = new TreeSet<>();
+        for (int day : days) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int monthIndex = (date.getYear() * 12 + date.getMonthValue() - 1) * WEEKS;
+            int dayOfMonth = date.getDayOfMonth();
+            int payWeek = (dayOfMonth - date.getDayOfWeek().getValue() + 10) / 7;
+            int lateWeek = (dayOfMonth - 1) / 7 + 1;
+            if (payWeek >= 1 && payWeek <= WEEKS) {
+                periods.add(monthIndex + payWeek - 1);
+            }
+            if (lateWeek <= WEEKS) {
+                periods.add(monthIndex + lateWeek - 1);
+            }
+        }
+        return periods;
+    }
+
+    // ================== QUERIES ================== //
+
+    public synchronized long getVersion() {
+        return store.version();
+    }
+
+    /**
+     * @return The employee's payslip for a week, or null if the week has no hours.
+     */
+    public synchronized PayrollResult getPayslip(String employeeID, int year, int month, int week) {
+        NavigableMap<Integer, PayrollResult> slips = payslips.get(employeeID);
+        return slips == null ? null : slips.get((year * 12 + month - 1) * WEEKS + week - 1);
+    }
+
+    /**
+     * @return Sums of the employee's payslips in a year; zero if there are none.
+     */
+    public synchronized PayrollDelta.YearToDate yearToDate(String employeeID, int year) {
+        long gross = 0;
+        long deductions = 0;
+        long tax = 0;
+        long net = 0;
+        NavigableMap<Integer, PayrollResult> slips = payslips.get(employeeID);
+        if (slips != null) {
+            for (PayrollResult slip : slips.subMap(year * 12 * WEEKS, (year + 1) * 12 * WEEKS).values()) {
+                gross += slip.gross();
+                deductions += slip.totalDeductions();
+                tax += slip.withholdingTax();
+                net += slip.netWage();
+            }
+        }
+        return new PayrollDelta.YearToDate(employeeID, year, gross, deductions, tax, net);
+    }
+}
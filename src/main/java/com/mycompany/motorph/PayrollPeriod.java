@@ -0,0 +1,100 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * A range of days to compute pay for, from start to end inclusive.
+ * Factories cover the supported pay cycles: pay weeks (as defined by
+ * {@link AttendanceRecord#isDateInTargetWeek}), semi-monthly halves, months, quarters
+ * and year-to-date.
+ */
+public record PayrollPeriod(LocalDate start, LocalDate end) {
+
+    public PayrollPeriod {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Period dates cannot be null");
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Period end " + end + " is before its start " + start);
+        }
+    }
+
+    /**
+     * Pay week of a month, as used by Grosswage.
+     * @param week Week of the month (0-5); weeks 1-4 always exist.
+     */
+    public static PayrollPeriod weekly(int year, int month, int week) {
+        int[] days = AttendanceRecord.targetWeekEpochDays(year, month, week);
+        if (days[0] > days[1]) {
+            throw new IllegalArgumentException(YearMonth.of(year, month) + " has no week " + week);
+        }
+        return new PayrollPeriod(LocalDate.ofEpochDay(days[0]), LocalDate.ofEpochDay(days[1]));
+    }
+
+    /**
+     * Days 1-15 of a month.
+     */
+    public static PayrollPeriod firstHalf(int year, int month) {
+        return new PayrollPeriod(LocalDate.of(year, month, 1), LocalDate.of(year, month, 15));
+    }
+
+    /**
+     * Day 16 to the end of a month.
+     */
+    public static PayrollPeriod secondHalf(int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return new PayrollPeriod(yearMonth.atDay(16), yearMonth.atEndOfMonth());
+    }
+
+    public static PayrollPeriod monthly(int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return new PayrollPeriod(yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    /**
+     * @param quarter Quarter of the year (1-4).
+     */
+    public static PayrollPeriod quarterly(int year, int quarter) {
+        if (quarter < 1 || quarter > 4) {
+            throw new IllegalArgumentException("Quarter must be between 1-4");
+        }
+        YearMonth first = YearMonth.of(year, quarter * 3 - 2);
+        return new PayrollPeriod(first.atDay(1), first.plusMonths(2).atEndOfMonth());
+    }
+
+    /**
+     * January 1 up to and including a date.
+     */
+    public static PayrollPeriod yearToDate(LocalDate asOf) {
+        return new PayrollPeriod(asOf.withDayOfYear(1), asOf);
+    }
+
+    /**
+     * The period of a pay cycle that contains a pay week.
+     * Weekly returns the week itself; the other cycles ignore the week, and
+     * year-to-date runs through the end of the month.
+     */
+    public static PayrollPeriod of(LatePenalty.PayrollCycle cycle, int year, int month, int week) {
+        return switch (cycle) {
+            case WEEKLY -> weekly(year, month, week);
+            case FIRST_HALF -> firstHalf(year, month);
+            case SECOND_HALF -> secondHalf(year, month);
+            case MONTHLY -> monthly(year, month);
+            case QUARTERLY -> quarterly(year, (month + 2) / 3);
+            case YEAR_TO_DATE -> yearToDate(YearMonth.of(year, month).atEndOfMonth());
+        };
+    }
+
+    public int startEpochDay() {
+        return (int) start.toEpochDay();
+    }
+
+    public int endEpochDay() {
+        return (int) end.toEpochDay();
+    }
+
+    public int dayCount() {
+        return endEpochDay() - startEpochDay() + 1;
+    }
+}
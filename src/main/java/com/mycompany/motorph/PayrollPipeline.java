@@ -0,0 +1,305 @@
+package com.mycompany.motorph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The payroll calculation of one employee-week as a graph of named values.
+ * Each node declares the nodes it reads; a node can only read nodes declared before it,
+ * so the graph is acyclic and declaration order is a valid evaluation order. Every node is
+ * evaluated once per employee-week and its value is shared by all nodes that read it.
+ * Values are amounts in centavos (see {@link Money}).
+ *
+ * Deduction nodes are summed into {@link #DEDUCTIONS}, which feeds taxable income, tax
+ * and net pay. A new deduction type is added with {@link Builder#deduction} on a copy of
+ * the standard pipeline:
+ * <pre>
+ * PayrollPipeline pipeline = PayrollPipeline.standard().toBuilder()
+ *     .deduction("loan", inputs -&gt; 250_00L)
+ *     .build();
+ * </pre>
+ */
+public final class PayrollPipeline {
+    public static final String GROSS = "gross";
+    public static final String SSS = "sss";
+    public static final String PHILHEALTH = "philhealth";
+    public static final String PAGIBIG = "pagibig";
+    public static final String LATE = "late";
+    public static final String DEDUCTIONS = "deductions";
+    public static final String TAXABLE = "taxable";
+    public static final String TAX = "tax";
+    public static final String NET = "net";
+
+    // Nodes computed from the deductions; re-added after any new deduction on rebuild
+    private static final List<String> DERIVED = List.of(DEDUCTIONS, TAXABLE, TAX, NET);
+
+    private static final PayrollPipeline STANDARD = new Builder()
+        .node(GROSS, inputs -> inputs.grossResult().gross())
+        .deduction(SSS, inputs -> weeklyShare(com.mycompany.motorph.SSS.contributionFor(inputs.get(GROSS),
+            inputs.payDay())), GROSS)
+        .deduction(PHILHEALTH, inputs -> weeklyShare(Philhealth.contributionFor(inputs.get(GROSS), inputs.payDay())), GROSS)
+        .deduction(PAGIBIG, inputs -> weeklyShare(Pagibig.contributionFor(inputs.get(GROSS), inputs.payDay())), GROSS)
+        .deduction(LATE, inputs -> LatePenalty.weeklyDeduction(inputs.cube(), inputs.grossResult()))
+        .build();
+
+    /**
+     * Computes a node's value, in centavos, from its inputs.
+     */
+    @FunctionalInterface
+    public interface Formula {
+        long apply(Inputs inputs);
+    }
+
+    private record Node(String name, Formula formula, int[] inputs, boolean deduction) {
+    }
+
+    private final List<Node> nodes;
+    private final Map<String, Integer> indexByName;
+
+    private PayrollPipeline(List<Node> nodes, Map<String, Integer> indexByName) {
+        this.nodes = nodes;
+        this.indexByName = indexByName;
+    }
+
+    /**
+     * @return Gross, SSS, PhilHealth, Pag-IBIG, late, deductions, taxable income, tax and net,
+     *         computed as by Netwage.
+     */
+    public static PayrollPipeline standard() {
+        return STANDARD;
+    }
+
+    /**
+     * @return A quarter of a monthly contribution, rounded half up to a centavo.
+     */
+    static long weeklyShare(long monthlyContribution) {
+        return Money.multiplyDivide(monthlyContribution, 1, 4);
+    }
+
+    /**
+     * @return A builder holding this pipeline's nodes, for adding nodes to it.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        for (Node node : nodes) {
+            if (!DERIVED.contains(node.name())) {
+                String[] inputs = Arrays.stream(node.inputs()).mapToObj(i -> nodes.get(i).name()).toArray(String[]::new);
+                builder.add(node.name(), node.formula(), node.deduction(), inputs);
+            }
+        }
+        return builder;
+    }
+
+    public List<String> nodeNames() {
+        return nodes.stream().map(Node::name).toList();
+    }
+
+    /**
+     * Evaluates every node on the calling thread.
+     * @param cube Attendance totals the gross wage result was computed from; nodes read any
+     *             other attendance figures, such as late minutes, from the same totals.
+     * @throws IllegalArgumentException If the result was computed from another attendance version.
+     */
+    public Evaluation evaluate(PayWeekCube cube, GrossResult grossResult) {
+        Evaluation evaluation = new Evaluation(cube, grossResult);
+        for (int i = 0; i < nodes.size(); i++) {
+            evaluation.compute(i);
+        }
+        return evaluation;
+    }
+
+    /**
+     * Evaluates the nodes on an executor. A node starts as soon as its inputs are done,
+     * so nodes that do not depend on each other run in parallel.
+     */
+    public Evaluation evaluate(PayWeekCube cube, GrossResult grossResult, Executor executor) {
+        Evaluation evaluation = new Evaluation(cube, grossResult);
+        List<CompletableFuture<Void>> done = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            int index = i;
+            CompletableFuture<?>[] inputs = Arrays.stream(nodes.get(i).inputs())
+                .mapToObj(done::get)
+                .toArray(CompletableFuture[]::new);
+            done.add(CompletableFuture.allOf(inputs).thenRunAsync(() -> evaluation.compute(index), executor));
+        }
+        CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).join();
+        return evaluation;
+    }
+
+    /**
+     * The node values of one employee-week.
+     */
+    public final class Evaluation {
+        private final PayWeekCube cube;
+        private final GrossResult grossResult;
+        private final int payDay;
+        private final long[] values = new long[nodes.size()];
+
+        private Evaluation(PayWeekCube cube, GrossResult grossResult) {
+            if (cube.getStore().version() != grossResult.dataVersion()) {
+                throw new IllegalArgumentException("Gross wage of " + grossResult.employeeID()
+                    + " was computed from other attendance totals");
+            }
+            this.cube = cube;
+            this.grossResult = grossResult;
+            this.payDay = StatutoryTables.payWeekEpochDay(grossResult.year(), grossResult.month(), grossResult.week());
+        }
+
+        private void compute(int index) {
+            values[index] = nodes.get(index).formula().apply(new Inputs(this, nodes.get(index)));
+        }
+
+        public GrossResult grossResult() {
+            return grossResult;
+        }
+
+        /**
+         * @return The value of a node, in centavos.
+         * @throws IllegalArgumentException If the pipeline has no such node.
+         */
+        public long get(String name) {
+            return values[indexOf(name)];
+        }
+
+        /**
+         * @return Every node value by name, in evaluation order.
+         */
+        public Map<String, Long> values() {
+            Map<String, Long> byName = new LinkedHashMap<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                byName.put(nodes.get(i).name(), values[i]);
+            }
+            return byName;
+        }
+    }
+
+    /**
+     * The values a node may read: its declared inputs, the gross wage result and the
+     * attendance totals it was computed from.
+     */
+    public final class Inputs {
+        private final Evaluation evaluation;
+        private final Node node;
+
+        private Inputs(Evaluation evaluation, Node node) {
+            this.evaluation = evaluation;
+            this.node = node;
+        }
+
+        public GrossResult grossResult() {
+            return evaluation.grossResult;
+        }
+
+        public PayWeekCube cube() {
+            return evaluation.cube;
+        }
+
+        /**
+         * @return The epoch day whose statutory tables apply to the pay week.
+         */
+        public int payDay() {
+            return evaluation.payDay;
+        }
+
+        /**
+         * @return The value of a declared input, in centavos.
+         * @throws IllegalArgumentException If the node did not declare the input.
+         */
+        public long get(String name) {
+            int index = indexOf(name);
+            for (int input : node.inputs()) {
+                if (input == index) {
+                    return evaluation.values[index];
+                }
+            }
+            throw new IllegalArgumentException("Node " + node.name() + " does not declare input " + name);
+        }
+    }
+
+    private int indexOf(String name) {
+        Integer index = indexByName.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown payroll node: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Declares the nodes of a pipeline in evaluation order.
+     */
+    public static final class Builder {
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<String, Integer> indexByName = new HashMap<>();
+
+        /**
+         * Adds a node.
+         * @param inputs Names of earlier nodes the formula reads.
+         */
+        public Builder node(String name, Formula formula, String... inputs) {
+            return add(name, formula, false, inputs);
+        }
+
+        /**
+         * Adds a node whose value is subtracted from gross pay before tax.
+         * @param inputs Names of earlier nodes the formula reads.
+         */
+        public Builder deduction(String name, Formula formula, String... inputs) {
+            return add(name, formula, true, inputs);
+        }
+
+        private Builder add(String name, Formula formula, boolean deduction, String... inputs) {
+            if (indexByName.containsKey(name) || DERIVED.contains(name)) {
+                throw new IllegalArgumentException("Duplicate payroll node: " + name);
+            }
+            int[] inputIndexes = new int[inputs.length];
+            for (int i = 0; i < inputs.length; i++) {
+                Integer index = indexByName.get(inputs[i]);
+                if (index == null) {
+                    throw new IllegalArgumentException("Node " + name + " reads " + inputs[i]
+                        + ", which is not declared before it");
+                }
+                inputIndexes[i] = index;
+            }
+            indexByName.put(name, nodes.size());
+            nodes.add(new Node(name, formula, inputIndexes, deduction));
+            return this;
+        }
+
+        /**
+         * Adds the deduction total, taxable income, tax and net pay nodes and builds the pipeline.
+         */
+        public PayrollPipeline build() {
+            if (!indexByName.containsKey(GROSS)) {
+                throw new IllegalStateException("A payroll pipeline needs a " + GROSS + " node");
+            }
+            String[] deductions = nodes.stream().filter(Node::deduction).map(Node::name).toArray(String[]::new);
+
+            Builder derived = new Builder();
+            derived.nodes.addAll(nodes);
+            derived.indexByName.putAll(indexByName);
+            derived.addDerived(DEDUCTIONS, inputs -> {
+                long total = 0;
+                for (String deduction : deductions) {
+                    total += inputs.get(deduction);
+                }
+                return total;
+            }, deductions);
+            derived.addDerived(TAXABLE, inputs -> inputs.get(GROSS) - inputs.get(DEDUCTIONS), GROSS, DEDUCTIONS);
+            derived.addDerived(TAX, inputs -> WithholdingTax.taxFor(inputs.get(TAXABLE), inputs.payDay()), TAXABLE);
+            derived.addDerived(NET, inputs -> inputs.get(TAXABLE) - inputs.get(TAX), TAXABLE, TAX);
+            return new PayrollPipeline(List.copyOf(derived.nodes), Map.copyOf(derived.indexByName));
+        }
+
+        private void addDerived(String name, Formula formula, String... inputs) {
+            int[] inputIndexes = Arrays.stream(inputs).mapToInt(indexByName::get).toArray();
+            indexByName.put(name, nodes.size());
+            nodes.add(new Node(name, formula, inputIndexes, false));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mycompany.motorph;
+
+/**
+ * Payroll of one employee for one week, as produced by {@link PayrollRun}.
+ * Contributions are the weekly shares (monthly amount / 4), as shown by Netwage.
+ * The hourly rate and amounts are in centavos (see {@link Money}).
+ */
+public record PayrollResult(
+        String employeeID,
+        String employeeName,
+        int year,
+        int month,
+        int week,
+        long hourlyRate,
+        double regularHours,
+        double overtimeHours,
+        long regularPay,
+        long overtimePay,
+        long holidayPay,
+        long gross,
+        long sssDeduction,
+        long philhealthDeduction,
+        long pagibigDeduction,
+        long lateDeduction,
+        long withholdingTax) {
+
+    public double hoursWorked() {
+        return regularHours + overtimeHours;
+    }
+
+    /**
+     * @return SSS, PhilHealth, Pag-IBIG and late deductions, without tax.
+     */
+    public long totalDeductions() {
+        return sssDeduction + philhealthDeduction + pagibigDeduction + lateDeduction;
+    }
+
+    public long taxableIncome() {
+        return gross - totalDeductions();
+    }
+
+    public long netWage() {
+        return gross - totalDeductions() - withholdingTax;
+    }
+}
@@ -0,0 +1,239 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Payroll for many employees at once.
+ * Attendance is aggregated in a single pass over all rows (see {@link PayWeekCube}),
+ * after which each employee's payroll only reads its own weekly totals. Deductions, tax
+ * and net pay come from the standard {@link PayrollPipeline}, as in Netwage, so results
+ * match computing each employee separately.
+ *
+ * Employees are independent once the totals are built, so a run can be spread over
+ * several threads; the attendance store, the totals and the employee list are only read.
+ * Parallel runs split the employees into one contiguous range per thread and share a
+ * pool per thread count across runs.
+ */
+public class PayrollRun {
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private PayrollRun() {
+    }
+
+    /**
+     * Computes the payroll of a week for a list of employees using the loaded attendance.
+     * Employees that Grosswage would reject (no hours worked in the week or no valid
+     * hourly rate) are left out.
+     * @param employees Employees to pay, e.g. from EmployeeModelFromFile.
+     * @param week Week of the month (1-4), as used by Grosswage and Netwage.
+     * @return Results in the order of the employee list.
+     */
+    public static List<PayrollResult> run(List<Employee> employees, int year, int month, int week) {
+        validatePeriod(month, week);
+
+        PayWeekCube cube = PayWeekCube.forStore(AttendanceRecord.getAttendanceStore());
+        List<PayrollResult> results = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            PayrollResult result = calculate(cube, employee, year, month, week);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Parallel form of {@link #run(List, int, int, int)}.
+     * @param parallelism Number of threads to use; 1 runs on the calling thread.
+     * @return Results in the order of the employee list.
+     */
+    public static List<PayrollResult> run(List<Employee> employees, int year, int month, int week,
+                                          int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (parallelism == 1) {
+            return run(employees, year, month, week);
+        }
+        validatePeriod(month, week);
+
+        // Build the totals once up front rather than racing to build them in every worker
+        PayWeekCube cube = PayWeekCube.forStore(AttendanceRecord.getAttendanceStore());
+        List<List<PayrollResult>> parts = inParts(employees.size(), parallelism, (from, to) -> {
+            List<PayrollResult> results = new ArrayList<>(to - from);
+            for (Employee employee : employees.subList(from, to)) {
+                PayrollResult result = calculate(cube, employee, year, month, week);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            return results;
+        });
+        List<PayrollResult> results = new ArrayList<>(employees.size());
+        parts.forEach(results::addAll);
+        return results;
+    }
+
+    /**
+     * Computes the payroll of a week, recording each employee in a journal as soon as it is
+     * done. Employees the journal already records, from an earlier attempt at the same run,
+     * are not computed again; their journaled payslips are returned instead.
+     * @param journal Journal of this pay week's run, see {@link PayrollJournal#open}.
+     * @return Results in the order of the employee list.
+     * @throws IOException If the journal cannot be written; the run stops at that employee.
+     */
+    public static List<PayrollResult> run(List<Employee> employees, PayrollJournal journal) throws IOException {
+        int year = journal.getYear();
+        int month = journal.getMonth();
+        int week = journal.getWeek();
+        validatePeriod(month, week);
+
+        PayWeekCube cube = PayWeekCube.forStore(AttendanceRecord.getAttendanceStore());
+        List<PayrollResult> results = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            if (employee == null) {
+                continue;
+            }
+            PayrollResult result;
+            if (journal.isRecorded(employee.getEmployeeNumber())) {
+                result = journal.getResult(employee.getEmployeeNumber());
+            } else {
+                result = calculate(cube, employee, year, month, week);
+                if (result != null) {
+                    journal.recordPaid(result);
+                } else {
+                    journal.recordSkipped(employee.getEmployeeNumber());
+                }
+            }
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Computes the payroll of a week into a buffer, one slot per employee in list order,
+     * without creating an object per employee. Amounts match {@link #run(List, int, int, int)}.
+     * @param out Buffer with a slot for every employee; slots of employees that are not
+     *            paid are cleared.
+     * @return Number of employees paid.
+     */
+    public static int run(List<Employee> employees, int year, int month, int week, PayrollBuffer out) {
+        validatePeriod(month, week);
+        validateBuffer(employees, out);
+
+        PayWeekCube cube = PayWeekCube.forStore(AttendanceRecord.getAttendanceStore());
+        return runSlots(employees, cube, year, month, week, out, 0, employees.size());
+    }
+
+    /**
+     * Parallel form of {@link #run(List, int, int, int, PayrollBuffer)}. The employees are
+     * split into one contiguous range per thread, each computed with that thread's context.
+     * @param parallelism Number of threads to use; 1 runs on the calling thread.
+     * @return Number of employees paid.
+     */
+    public static int run(List<Employee> employees, int year, int month, int week, PayrollBuffer out,
+                          int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (parallelism == 1) {
+            return run(employees, year, month, week, out);
+        }
+        validatePeriod(month, week);
+        validateBuffer(employees, out);
+
+        PayWeekCube cube = PayWeekCube.forStore(AttendanceRecord.getAttendanceStore());
+        int paid = 0;
+        for (int partPaid : inParts(employees.size(), parallelism,
+                (from, to) -> runSlots(employees, cube, year, month, week, out, from, to))) {
+            paid += partPaid;
+        }
+        return paid;
+    }
+
+    // A computation over the employees in [from, to)
+    private interface Part<T> {
+        T compute(int from, int to);
+    }
+
+    /**
+     * Splits [0, size) into one contiguous range per thread and computes them on the
+     * pool for that many threads.
+     * @return The result of each range, in order.
+     */
+    private static <T> List<T> inParts(int size, int parallelism, Part<T> part) {
+        ForkJoinPool pool = POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            int from = (int) ((long) size * i / parallelism);
+            int to = (int) ((long) size * (i + 1) / parallelism);
+            tasks.add(pool.submit((Callable<T>) () -> part.compute(from, to)));
+        }
+        List<T> results = new ArrayList<>(parallelism);
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private static int runSlots(List<Employee> employees, PayWeekCube cube, int year, int month, int week,
+                                PayrollBuffer out, int from, int to) {
+        PayrollContext context = PayrollContext.current().reset(cube, year, month, week);
+        int paid = 0;
+        for (int slot = from; slot < to; slot++) {
+            if (context.compute(employees.get(slot), out, slot)) {
+                paid++;
+            }
+        }
+        return paid;
+    }
+
+    private static void validateBuffer(List<Employee> employees, PayrollBuffer out) {
+        if (out == null || out.capacity() < employees.size()) {
+            throw new IllegalArgumentException("Result buffer needs a slot for each of the "
+                + employees.size() + " employees");
+        }
+    }
+
+    private static void validatePeriod(int month, int week) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1-12");
+        }
+        if (week < 1 || week > 4) {
+            throw new IllegalArgumentException("Week must be between 1-4");
+        }
+    }
+
+    /**
+     * @return The employee's payroll, or null if the employee has no hours or rate.
+     */
+    static PayrollResult calculate(PayWeekCube cube, Employee employee, int year, int month, int week) {
+        long hourlyRate = employee == null ? 0 : Money.ofPesos(employee.getHourlyRate());
+        if (hourlyRate <= 0) {
+            return null;
+        }
+
+        GrossResult grossResult = GrossResult.of(cube, employee.getEmployeeNumber(),
+            employee.getFirstName() + " " + employee.getLastName(), hourlyRate, year, month, week,
+            employee.getShiftStartTime(), employee.isNightShift());
+        if (grossResult.hoursWorked() <= 0) {
+            return null;
+        }
+        PayrollPipeline.Evaluation payroll = PayrollPipeline.standard().evaluate(cube, grossResult);
+        return new PayrollResult(grossResult.employeeID(), grossResult.employeeName(), year, month, week,
+            hourlyRate, grossResult.regularHours(), grossResult.overtimeHours(), grossResult.regularPay(),
+            grossResult.overtimePay(), grossResult.holidayPay(), payroll.get(PayrollPipeline.GROSS),
+            payroll.get(PayrollPipeline.SSS), payroll.get(PayrollPipeline.PHILHEALTH),
+            payroll.get(PayrollPipeline.PAGIBIG), payroll.get(PayrollPipeline.LATE),
+            payroll.get(PayrollPipeline.TAX));
+    }
+}
@@ -0,0 +1,400 @@
+package com.mycompany.motorph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * What-if payroll for one pay week: the week's payslips recomputed under changed rates,
+ * contribution formulas, tax brackets or holiday premiums, compared with the current rules.
+ *
+ * The hours of every employee are taken from the weekly totals once, when the simulation
+ * is created, and kept in primitive columns. Each {@link #simulate} call then recomputes
+ * all employees in one pass over those columns without reading attendance again:
+ * <pre>
+ * PayrollSimulation simulation = PayrollSimulation.of(employees, 2024, 8, 2);
+ * PayrollSimulation.Result result = simulation.simulate(PayrollSimulation.Scenario.builder()
+ *     .hourlyRatePercent(105)
+ *     .philhealthRate(500)
+ *     .build());
+ * </pre>
+ * Amounts are in centavos (see {@link Money}).
+ */
+public final class PayrollSimulation {
+    private final int year;
+    private final int month;
+    private final int week;
+    private final List<String> employeeIDs = new ArrayList<>();
+
+    // Per employee with hours in the week
+    private final long[] hourlyRates;
+    private final boolean[] nightShift;
+    private final int[] regularMinutes;
+    private final int[] overtimeMinutes;
+    private final int[] regularHolidayRegularMinutes;
+    private final int[] regularHolidayOvertimeMinutes;
+    private final int[] specialDayRegularMinutes;
+    private final int[] specialDayOvertimeMinutes;
+    private final int[] lateMinutes;
+
+    // Statutory tables in effect for the week, used where a scenario does not override them
+    private final StatutoryTable sssTable;
+    private final StatutoryTable philhealthTable;
+    private final StatutoryTable pagibigTable;
+    private final StatutoryTable taxTable;
+
+    private final PayrollBuffer baseline;
+
+    private PayrollSimulation(List<Employee> employees, PayWeekCube cube, int year, int month, int week) {
+        this.year = year;
+        this.month = month;
+        this.week = week;
+
+        StatutoryTables tables = StatutoryTables.current();
+        int payDay = StatutoryTables.payWeekEpochDay(year, month, week);
+        sssTable = tables.tableFor(StatutoryTables.Kind.SSS, payDay);
+        philhealthTable = tables.tableFor(StatutoryTables.Kind.PHILHEALTH, payDay);
+        pagibigTable = tables.tableFor(StatutoryTables.Kind.PAGIBIG, payDay);
+        taxTable = tables.tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, payDay);
+
+        List<Employee> withHours = new ArrayList<>();
+        for (Employee employee : employees) {
+            int key = employee == null ? -1 : cube.getStore().keyOf(employee.getEmployeeNumber());
+            if (key >= 0 && cube.regularMinutes(key, year, month, week) + cube.overtimeMinutes(key, year, month, week) > 0) {
+                withHours.add(employee);
+            }
+        }
+
+        int count = withHours.size();
+        hourlyRates = new long[count];
+        nightShift = new boolean[count];
+        regularMinutes = new int[count];
+        overtimeMinutes = new int[count];
+        regularHolidayRegularMinutes = new int[count];
+        regularHolidayOvertimeMinutes = new int[count];
+        specialDayRegularMinutes = new int[count];
+        specialDayOvertimeMinutes = new int[count];
+        lateMinutes = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            Employee employee = withHours.get(slot);
+            int key = cube.getStore().keyOf(employee.getEmployeeNumber());
+            employeeIDs.add(employee.getEmployeeNumber());
+            hourlyRates[slot] = Money.ofPesos(employee.getHourlyRate());
+            nightShift[slot] = employee.isNightShift();
+            regularMinutes[slot] = cube.regularMinutes(key, year, month, week);
+            overtimeMinutes[slot] = cube.overtimeMinutes(key, year, month, week);
+            regularHolidayRegularMinutes[slot] = cube.regularHolidayMinutes(key, year, month, week, false);
+            regularHolidayOvertimeMinutes[slot] = cube.regularHolidayMinutes(key, year, month, week, true);
+            specialDayRegularMinutes[slot] = cube.specialDayMinutes(key, year, month, week, false);
+            specialDayOvertimeMinutes[slot] = cube.specialDayMinutes(key, year, month, week, true);
+            lateMinutes[slot] = cube.lateMinutes(key, year, month, week,
+                AttendanceRecord.toMinuteOfDay(employee.getShiftStartTime()));
+        }
+
+        baseline = new PayrollBuffer(count);
+        compute(Scenario.baseline(), baseline);
+    }
+
+    /**
+     * Takes the hours of a pay week from the loaded attendance.
+     * @param week Week of the month (1-4), as used by PayrollRun.
+     */
+    public static PayrollSimulation of(List<Employee> employees, int year, int month, int week) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1-12");
+        }
+        if (week < 1 || week > 4) {
+            throw new IllegalArgumentException("Week must be between 1-4");
+        }
+        return new PayrollSimulation(employees, PayWeekCube.forStore(AttendanceRecord.getAttendanceStore()),
+            year, month, week);
+    }
+
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public int getWeek() { return week; }
+
+    /**
+     * @return Payslips under the current rules; equal to PayrollRun's for the same week.
+     */
+    public PayrollBuffer getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Recomputes every employee under a scenario.
+     */
+    public Result simulate(Scenario scenario) {
+        PayrollBuffer simulated = new PayrollBuffer(employeeIDs.size());
+        compute(scenario, simulated);
+        return new Result(List.copyOf(employeeIDs), baseline, simulated);
+    }
+
+    private void compute(Scenario scenario, PayrollBuffer out) {
+        LongUnaryOperator sssFormula = scenario.sss != null ? scenario.sss : sssTable::amountFor;
+        LongUnaryOperator philhealthFormula = scenario.philhealth != null ? scenario.philhealth
+            : scenario.philhealthRate >= 0 ? Philhealth.atRate(philhealthTable, scenario.philhealthRate)
+            : philhealthTable::amountFor;
+        LongUnaryOperator pagibigFormula = scenario.pagibig != null ? scenario.pagibig : pagibigTable::amountFor;
+        StatutoryTable tax = scenario.taxTable != null ? scenario.taxTable : taxTable;
+
+        for (int slot = 0; slot < employeeIDs.size(); slot++) {
+            long hourlyRate = scenario.hourlyRate(employeeIDs.get(slot), hourlyRates[slot]);
+            if (hourlyRate <= 0) {
+                out.clear(slot);
+                continue;
+            }
+
+            long regularPremiumMinutes = (long) scenario.regularHolidayPremiumPercent * regularHolidayRegularMinutes[slot]
+                + (long) scenario.specialDayPremiumPercent * specialDayRegularMinutes[slot];
+            long overtimePremiumMinutes = (long) scenario.regularHolidayPremiumPercent * regularHolidayOvertimeMinutes[slot]
+                + (long) scenario.specialDayPremiumPercent * specialDayOvertimeMinutes[slot];
+            long regularPay = GrossResult.regularPay(regularMinutes[slot], regularPremiumMinutes, hourlyRate);
+            long overtimePay = GrossResult.overtimePay(overtimeMinutes[slot], hourlyRate, nightShift[slot]);
+            long holidayPay = GrossResult.holidayPay(regularPremiumMinutes, overtimePremiumMinutes, hourlyRate);
+            long gross = regularPay + overtimePay;
+
+            long sss = PayrollPipeline.weeklyShare(sssFormula.applyAsLong(gross));
+            long philhealth = PayrollPipeline.weeklyShare(philhealthFormula.applyAsLong(gross));
+            long pagibig = PayrollPipeline.weeklyShare(pagibigFormula.applyAsLong(gross));
+            long late = LatePenalty.deductionFor(hourlyRate, lateMinutes[slot]);
+            long withholdingTax = tax.amountFor(gross - sss - philhealth - pagibig - late);
+
+            out.set(slot, regularMinutes[slot], overtimeMinutes[slot], regularPay, overtimePay, holidayPay,
+                sss, philhealth, pagibig, late, withholdingTax);
+        }
+    }
+
+    // ================== SCENARIOS ================== //
+
+    /**
+     * A set of overrides to the current payroll rules. Rules that are not overridden stay
+     * as they are, with the statutory tables in effect for the simulated week.
+     * Contribution overrides give the monthly contribution in centavos for a gross wage in
+     * centavos; the weekly share is a quarter of it, as in the standard payroll.
+     */
+    public static final class Scenario {
+        private static final Scenario BASELINE = new Builder().build();
+
+        private final int hourlyRatePercent;
+        private final Map<String, Long> hourlyRates;
+        private final LongUnaryOperator sss;
+        private final LongUnaryOperator philhealth;
+        private final int philhealthRate;
+        private final LongUnaryOperator pagibig;
+        private final StatutoryTable taxTable;
+        private final int regularHolidayPremiumPercent;
+        private final int specialDayPremiumPercent;
+
+        private Scenario(Builder builder) {
+            this.hourlyRatePercent = builder.hourlyRatePercent;
+            this.hourlyRates = Map.copyOf(builder.hourlyRates);
+            this.sss = builder.sss;
+            this.philhealth = builder.philhealth;
+            this.philhealthRate = builder.philhealthRate;
+            this.pagibig = builder.pagibig;
+            this.taxTable = builder.taxTable;
+            this.regularHolidayPremiumPercent = builder.regularHolidayPremiumPercent;
+            this.specialDayPremiumPercent = builder.specialDayPremiumPercent;
+        }
+
+        /**
+         * @return The current rules, without overrides.
+         */
+        public static Scenario baseline() {
+            return BASELINE;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        private long hourlyRate(String employeeID, long current) {
+            Long override = hourlyRates.get(employeeID);
+            return override != null ? override : Money.percentOf(current, hourlyRatePercent);
+        }
+
+        public static final class Builder {
+            private int hourlyRatePercent = 100;
+            private final Map<String, Long> hourlyRates = new HashMap<>();
+            // Null where the week's statutory table applies
+            private LongUnaryOperator sss;
+            private LongUnaryOperator philhealth;
+            private int philhealthRate = -1;  // Basis points, or -1 for none
+            private LongUnaryOperator pagibig;
+            private StatutoryTable taxTable;
+            private int regularHolidayPremiumPercent = HolidayChecker.REGULAR_HOLIDAY_PREMIUM_PERCENT;
+            private int specialDayPremiumPercent = HolidayChecker.SPECIAL_DAY_PREMIUM_PERCENT;
+
+            private Builder() {
+            }
+
+            /**
+             * Scales every hourly rate, e.g. 105 for a 5% raise. Rates set per employee are not scaled.
+             */
+            public Builder hourlyRatePercent(int percent) {
+                if (percent < 0) {
+                    throw new IllegalArgumentException("Rate percent cannot be negative");
+                }
+                this.hourlyRatePercent = percent;
+                return this;
+            }
+
+            /**
+             * Sets one employee's hourly rate.
+             */
+            public Builder hourlyRate(String employeeID, double pesos) {
+                hourlyRates.put(employeeID, Money.ofPesos(pesos));
+                return this;
+            }
+
+            public Builder sss(LongUnaryOperator monthlyContribution) {
+                this.sss = requireFormula(monthlyContribution);
+                return this;
+            }
+
+            /**
+             * Uses another PhilHealth premium rate, e.g. 500 for 5%, with the salary ceiling
+             * of the simulated week's table.
+             */
+            public Builder philhealthRate(int basisPoints) {
+                if (basisPoints < 0) {
+                    throw new IllegalArgumentException("PhilHealth rate cannot be negative");
+                }
+                this.philhealth = null;
+                this.philhealthRate = basisPoints;
+                return this;
+            }
+
+            public Builder philhealth(LongUnaryOperator monthlyContribution) {
+                this.philhealth = requireFormula(monthlyContribution);
+                this.philhealthRate = -1;
+                return this;
+            }
+
+            public Builder pagibig(LongUnaryOperator monthlyContribution) {
+                this.pagibig = requireFormula(monthlyContribution);
+                return this;
+            }
+
+            /**
+             * @param brackets Brackets sorted by {@code over}, lowest first.
+             */
+            public Builder taxBrackets(List<WithholdingTax.Bracket> brackets) {
+                this.taxTable = WithholdingTax.tableOf(brackets);
+                return this;
+            }
+
+            /**
+             * Sets the premiums paid on top of the regular rate for work on holidays,
+             * e.g. 100 for double pay on regular holidays.
+             */
+            public Builder holidayPremiumPercents(int regularHoliday, int specialDay) {
+                if (regularHoliday < 0 || specialDay < 0) {
+                    throw new IllegalArgumentException("Holiday premiums cannot be negative");
+                }
+                this.regularHolidayPremiumPercent = regularHoliday;
+                this.specialDayPremiumPercent = specialDay;
+                return this;
+            }
+
+            public Scenario build() {
+                return new Scenario(this);
+            }
+
+            private static LongUnaryOperator requireFormula(LongUnaryOperator formula) {
+                if (formula == null) {
+                    throw new IllegalArgumentException("Contribution formula cannot be null");
+                }
+                return formula;
+            }
+        }
+    }
+
+    // ================== RESULTS ================== //
+
+    /**
+     * Sums of a set of payslips.
+     */
+    public record Totals(long gross, long deductions, long withholdingTax, long netWage) {
+        static Totals of(PayrollBuffer buffer, int size) {
+            long gross = 0;
+            long deductions = 0;
+            long tax = 0;
+            long net = 0;
+            for (int slot = 0; slot < size; slot++) {
+                gross += buffer.gross(slot);
+                deductions += buffer.totalDeductions(slot);
+                tax += buffer.withholdingTax(slot);
+                net += buffer.netWage(slot);
+            }
+            return new Totals(gross, deductions, tax, net);
+        }
+
+        public Totals minus(Totals other) {
+            return new Totals(gross - other.gross, deductions - other.deductions,
+                withholdingTax - other.withholdingTax, netWage - other.netWage);
+        }
+    }
+
+    /**
+     * Payslips of the same employees under the current rules and under a scenario,
+     * in matching slots.
+     */
+    public record Result(List<String> employeeIDs, PayrollBuffer baseline, PayrollBuffer simulated) {
+
+        public String employeeID(int slot) {
+            return employeeIDs.get(slot);
+        }
+
+        public long grossChange(int slot) {
+            return simulated.gross(slot) - baseline.gross(slot);
+        }
+
+        public long deductionsChange(int slot) {
+            return simulated.totalDeductions(slot) - baseline.totalDeductions(slot);
+        }
+
+        public long withholdingTaxChange(int slot) {
+            return simulated.withholdingTax(slot) - baseline.withholdingTax(slot);
+        }
+
+        public long netWageChange(int slot) {
+            return simulated.netWage(slot) - baseline.netWage(slot);
+        }
+
+        public Totals baselineTotals() {
+            return Totals.of(baseline, employeeIDs.size());
+        }
+
+        public Totals simulatedTotals() {
+            return Totals.of(simulated, employeeIDs.size());
+        }
+
+        /**
+         * @return Scenario totals minus current totals.
+         */
+        public Totals totalChange() {
+            return simulatedTotals().minus(baselineTotals());
+        }
+
+        public void printReport() {
+            System.out.println("\nPayroll Simulation");
+            System.out.println("==========================");
+            System.out.printf("%-8s %14s %14s %14s %14s%n", "Employee", "Gross", "Deductions", "Tax", "Net");
+            for (int slot = 0; slot < employeeIDs.size(); slot++) {
+                System.out.printf("%-8s %+14.2f %+14.2f %+14.2f %+14.2f%n", employeeID(slot),
+                    Money.toPesos(grossChange(slot)), Money.toPesos(deductionsChange(slot)),
+                    Money.toPesos(withholdingTaxChange(slot)), Money.toPesos(netWageChange(slot)));
+            }
+            Totals change = totalChange();
+            System.out.println("--------------------------");
+            System.out.printf("%-8s %+14.2f %+14.2f %+14.2f %+14.2f%n", "Total",
+                Money.toPesos(change.gross()), Money.toPesos(change.deductions()),
+                Money.toPesos(change.withholdingTax()), Money.toPesos(change.netWage()));
+            System.out.println("==========================");
+        }
+    }
+}
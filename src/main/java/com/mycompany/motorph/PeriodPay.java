@@ -0,0 +1,59 @@
+package com.mycompany.motorph;
+
+/**
+ * Gross pay and late deduction of one employee over a payroll period.
+ * Computed from {@link DailyPayTotals} in time that does not grow with the length of the period.
+ * The hourly rate and amounts are in centavos (see {@link Money}).
+ * @param dataVersion Version of the attendance store the result was computed from.
+ */
+public record PeriodPay(
+        String employeeID,
+        PayrollPeriod period,
+        long hourlyRate,
+        double regularHours,
+        double overtimeHours,
+        long regularPay,
+        long overtimePay,
+        long holidayPay,
+        long lateDeduction,
+        long dataVersion) {
+
+    /**
+     * Computes an employee's pay for a period from the loaded attendance, with the same
+     * rates as Grosswage. Late minutes are counted from the employee's shift start.
+     */
+    public static PeriodPay calculate(Employee employee, PayrollPeriod period) {
+        if (employee == null || period == null) {
+            throw new IllegalArgumentException("Employee and period cannot be null");
+        }
+        DailyPayTotals totals = DailyPayTotals.forStore(AttendanceRecord.getAttendanceStore());
+        int key = totals.getStore().keyOf(employee.getEmployeeNumber());
+        int from = period.startEpochDay();
+        int to = period.endEpochDay();
+
+        int regularMinutes = totals.regularMinutes(key, from, to);
+        int overtimeMinutes = totals.overtimeMinutes(key, from, to);
+        long regularPremiumMinutes = totals.regularPremiumMinutes(key, from, to);
+        long overtimePremiumMinutes = totals.overtimePremiumMinutes(key, from, to);
+        int lateMinutes = totals.lateMinutes(key, from, to,
+            AttendanceRecord.toMinuteOfDay(employee.getShiftStartTime()));
+
+        long hourlyRate = Money.ofPesos(employee.getHourlyRate());
+        return new PeriodPay(employee.getEmployeeNumber(), period, hourlyRate,
+            regularMinutes / 60.0,
+            overtimeMinutes / 60.0,
+            GrossResult.regularPay(regularMinutes, regularPremiumMinutes, hourlyRate),
+            GrossResult.overtimePay(overtimeMinutes, hourlyRate, employee.isNightShift()),
+            GrossResult.holidayPay(regularPremiumMinutes, overtimePremiumMinutes, hourlyRate),
+            LatePenalty.deductionFor(hourlyRate, lateMinutes),
+            totals.getStore().version());
+    }
+
+    public double hoursWorked() {
+        return regularHours + overtimeHours;
+    }
+
+    public long gross() {
+        return regularPay + overtimePay;
+    }
+}
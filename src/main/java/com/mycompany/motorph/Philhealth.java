@@ -3,16 +3,27 @@
  */
 package com.mycompany.motorph;
 
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
 public class Philhealth extends Calculation {
     private double philhealthDeduction; // PhilHealth deduction amount
-    private final Grosswage grosswage; // Gross wage object for calculation
+    private final GrossResult grossResult; // Gross wage the deduction is based on
 
     /**
      * Constructor for Philhealth.
      * @param grosswage The Grosswage object containing the employee's gross wage.
      */
     public Philhealth(Grosswage grosswage) {
-        this.grosswage = grosswage;
+        this(grosswage.getResult());
+    }
+
+    /**
+     * Constructor for Philhealth from an already computed gross wage.
+     * @param grossResult The employee's gross wage.
+     */
+    public Philhealth(GrossResult grossResult) {
+        this.grossResult = grossResult;
     }
 
     /**
@@ -21,17 +32,74 @@ public class Philhealth extends Calculation {
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
+        int payDay = StatutoryTables.payWeekEpochDay(grossResult.year(), grossResult.month(), grossResult.week());
+        philhealthDeduction = Money.toPesos(contributionFor(grossResult.gross(), payDay));
+        return philhealthDeduction;
+    }
 
-        double philDed;
-        if (gross > 60000) {
-            philDed = 1800;
-        } else {
-            philDed = (gross * 0.03) / 2;
-        }
+    /**
+     * Calculates the employee share of PhilHealth for a gross wage with the table in
+     * effect today.
+     * @param gross The gross wage in centavos.
+     * @return The PhilHealth deduction amount in centavos.
+     */
+    public static long contributionFor(long gross) {
+        return contributionFor(gross, StatutoryTables.today());
+    }
 
-        philhealthDeduction = philDed;
-        return philhealthDeduction;
+    /**
+     * Calculates the employee share of PhilHealth for a gross wage with the table in
+     * effect on a day.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static long contributionFor(long gross, int epochDay) {
+        return StatutoryTables.current().tableFor(StatutoryTables.Kind.PHILHEALTH, epochDay).amountFor(gross);
+    }
+
+    /**
+     * Calculates the PhilHealth contributions for several gross wages at once with the table in
+     * effect on a day, for batch runs. Uses the Vector API when it is available, see
+     * {@link StatutoryTable#amountsFor(long[], long[], int)}.
+     * @param grossWages Gross wages in centavos.
+     * @param out Receives the contribution in centavos for each gross wage, at the same index.
+     * @param count Number of gross wages to compute, from index 0.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static void contributionsFor(long[] grossWages, long[] out, int count, int epochDay) {
+        StatutoryTables.current().tableFor(StatutoryTables.Kind.PHILHEALTH, epochDay).amountsFor(grossWages, out, count);
+    }
+
+    /**
+     * Calculates the PhilHealth deduction for another premium rate with the salary ceiling
+     * of the table in effect on a day: half of the rate, or the full rate of the ceiling
+     * above the ceiling, as in the current table.
+     * @param rateBasisPoints Premium rate in hundredths of a percent, e.g. 500 for 5%.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static long contributionAtRate(long gross, int rateBasisPoints, int epochDay) {
+        StatutoryTable table = StatutoryTables.current().tableFor(StatutoryTables.Kind.PHILHEALTH, epochDay);
+        return atRate(table, rateBasisPoints).applyAsLong(gross);
+    }
+
+    /**
+     * @return The deduction for another premium rate with the salary ceiling of a table,
+     *         as a function of the gross wage in centavos.
+     */
+    static LongUnaryOperator atRate(StatutoryTable table, int rateBasisPoints) {
+        long ceiling = salaryCeiling(table);
+        return gross -> gross > ceiling
+            ? Money.multiplyDivide(ceiling, rateBasisPoints, 10_000)
+            : Money.multiplyDivide(gross, rateBasisPoints, 20_000);
+    }
+
+    /**
+     * @return The lower bound of the table's last bracket if that bracket is a fixed
+     *         amount, or Long.MAX_VALUE if the table has no ceiling.
+     */
+    static long salaryCeiling(StatutoryTable table) {
+        List<StatutoryTable.Bracket> brackets = table.brackets();
+        StatutoryTable.Bracket last = brackets.get(brackets.size() - 1);
+        return last.rateBasisPoints() == 0 && last.over() != StatutoryTable.NO_LOWER_BOUND ? last.over() : Long.MAX_VALUE;
     }
 
     /**
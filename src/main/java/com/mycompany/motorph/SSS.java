@@ -1,77 +1,122 @@
 package com.mycompany.motorph;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 public class SSS extends Calculation {
 
     private double sssDeduction; // SSS deduction amount
-    private final Grosswage grosswage; // Gross wage object for calculation
-
-    private static final String CSV_FILE_PATH = "src/main/resources/SSSCont.csv"; // Path to the SSS contributions CSV file
-    private static final List<SSSRecord> sssDeductionRecords; // List of SSS deduction records
-
-    // Static block to load SSS deduction records when the class is loaded
-    static {
-        sssDeductionRecords = loadSssDeductions();
-        if (sssDeductionRecords == null) {
-            throw new RuntimeException("Failed to load SSS deductions.");
-        }
-    }
+    private final GrossResult grossResult; // Gross wage the deduction is based on
 
     /**
      * Constructor for SSS.
      * @param grosswage The Grosswage object containing the employee's gross wage.
      */
     public SSS(Grosswage grosswage) {
-        this.grosswage = grosswage;
+        this(grosswage.getResult());
+    }
+
+    /**
+     * Constructor for SSS from an already computed gross wage.
+     * @param grossResult The employee's gross wage.
+     */
+    public SSS(GrossResult grossResult) {
+        this.grossResult = grossResult;
     }
 
     /**
-     * Calculates the SSS deduction based on the employee's gross wage.
+     * Calculates the SSS deduction based on the employee's gross wage, with the table in
+     * effect for the pay week.
      * @return The SSS deduction amount.
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
+        int payDay = StatutoryTables.payWeekEpochDay(grossResult.year(), grossResult.month(), grossResult.week());
+        sssDeduction = Money.toPesos(contributionFor(grossResult.gross(), payDay));
+        return sssDeduction;
+    }
 
-        // Initialize SSS deduction to 0
-        sssDeduction = 0.0;
+    /**
+     * Looks up the SSS contribution for a gross wage in the table in effect today.
+     * @param gross The gross wage in centavos.
+     * @return The SSS contribution in centavos.
+     */
+    public static long contributionFor(long gross) {
+        return contributionFor(gross, StatutoryTables.today());
+    }
 
-        // Iterate through the SSS deduction records
-        for (SSSRecord record : sssDeductionRecords) {
-            double[] range = parseSssCompensationRange(record.getCompensationRange());
+    /**
+     * Looks up the SSS contribution for a gross wage in the table in effect on a day.
+     * @param gross The gross wage in centavos.
+     * @param epochDay The pay day, as an epoch day.
+     * @return The SSS contribution in centavos.
+     */
+    public static long contributionFor(long gross, int epochDay) {
+        return StatutoryTables.current().tableFor(StatutoryTables.Kind.SSS, epochDay).amountFor(gross);
+    }
 
-            // Check if the gross wage falls within the range
-            if (gross >= range[0] && gross <= range[1]) {
-                sssDeduction = record.getContribution();
-                break;
-            }
-        }
+    /**
+     * Looks up the SSS contributions for several gross wages at once, in the table in
+     * effect today.
+     * @param grossWages Gross wages in centavos.
+     * @param out Receives the contribution in centavos for each gross wage, at the same index.
+     * @param count Number of gross wages to look up, from index 0.
+     */
+    public static void contributionsFor(long[] grossWages, long[] out, int count) {
+        contributionsFor(grossWages, out, count, StatutoryTables.today());
+    }
 
-        // If no range matches, apply the maximum contribution
-        if (sssDeduction == 0.0) {
-            double maxContribution = sssDeductionRecords.stream()
-                    .mapToDouble(SSSRecord::getContribution)
-                    .max()
-                    .orElse(0.0);
-            sssDeduction = maxContribution;
-        }
+    /**
+     * Looks up the SSS contributions for several gross wages at once, in the table in
+     * effect on a day.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static void contributionsFor(long[] grossWages, long[] out, int count, int epochDay) {
+        StatutoryTables.current().tableFor(StatutoryTables.Kind.SSS, epochDay).amountsFor(grossWages, out, count);
+    }
 
-        return sssDeduction;
+    /**
+     * Compiles an SSS contribution schedule in the layout of SSSCont.csv. Each bracket's
+     * range runs from the previous bracket's upper end, so a boundary shared by two rows
+     * belongs to the lower bracket.
+     */
+    static StatutoryTable loadSchedule(Path path) throws IOException {
+        List<SSSRecord> records = loadSssDeductions(path);
+        if (records.isEmpty()) {
+            throw new IOException("No SSS brackets in " + path);
+        }
+        List<StatutoryTable.Bracket> brackets = new ArrayList<>(records.size());
+        long over = StatutoryTable.NO_LOWER_BOUND;
+        for (SSSRecord record : records) {
+            double[] range;
+            try {
+                range = parseSssCompensationRange(record.getCompensationRange());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(path + ": " + e.getMessage(), e);
+            }
+            long rangeEnd = range[1] == Double.MAX_VALUE ? Long.MAX_VALUE : Money.ofPesos(range[1]);
+            if (rangeEnd <= over) {
+                throw new IOException("SSS brackets must be listed from the lowest range: "
+                    + record.getCompensationRange());
+            }
+            brackets.add(StatutoryTable.Bracket.fixed(over, Money.ofPesos(record.getContribution())));
+            over = rangeEnd;
+        }
+        return StatutoryTable.of(brackets);
     }
 
     /**
      * Loads SSS deduction records from a CSV file.
      * @return A list of SSSRecord objects.
      */
-    private static List<SSSRecord> loadSssDeductions() {
+    private static List<SSSRecord> loadSssDeductions(Path path) throws IOException {
         List<SSSRecord> deductionRecords = new ArrayList<>();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE_PATH))) {
+        try (BufferedReader br = Files.newBufferedReader(path)) {
             // Skip header row
             br.readLine();
             
@@ -80,14 +125,16 @@ public class SSS extends Calculation {
                 String[] values = parseCSVLine(line);
                 
                 if (values.length >= 4) { // Ensure we have enough columns
+                    // The range spans columns A-C: "Below X" alone, or "X", "-", "Y" / "Over"
                     String compensationRange = values[0].trim();
+                    if (values[1].trim().equals("-")) {
+                        compensationRange += " - " + values[2].trim();
+                    }
                     double contribution = parseDoubleValue(values[3].trim()); // Contribution is in column D (index 3)
                     
                     deductionRecords.add(new SSSRecord(compensationRange, contribution));
                 }
             }
-        } catch (IOException e) {
-            handleException(e);
         }
 
         return deductionRecords;
@@ -134,7 +181,7 @@ public class SSS extends Calculation {
 
     /**
      * Parses the SSS compensation range string into a numeric range.
-     * @param compensationRange The compensation range string (e.g., "Below 3,250").
+     * @param compensationRange The compensation range string (e.g., "Below 3,250" or "3,250 - 3,750").
      * @return An array containing the start and end values of the range.
      */
     private static double[] parseSssCompensationRange(String compensationRange) {
@@ -147,8 +194,15 @@ public class SSS extends Calculation {
             return new double[]{0, end};
         }
 
-        // Handle the "Over" format
-        if (compensationRange.contains("Over")) {
+        // Handle the "X - Over" format
+        if (compensationRange.endsWith("- Over")) {
+            String startValue = compensationRange.substring(0, compensationRange.lastIndexOf('-')).trim();
+            double start = parseNumber(startValue);
+            return new double[]{start, Double.MAX_VALUE};
+        }
+
+        // Handle the "Over X" format
+        if (compensationRange.startsWith("Over")) {
             String startValue = compensationRange.replace("Over", "").trim();
             double start = parseNumber(startValue);
             return new double[]{start, Double.MAX_VALUE};
@@ -185,13 +239,6 @@ public class SSS extends Calculation {
         return Double.parseDouble(numberString);
     }
 
-    /**
-     * Handles exceptions by printing the stack trace.
-     */
-    private static void handleException(Exception e) {
-        e.printStackTrace();
-    }
-
     /**
      * Returns the SSS deduction amount.
      */
@@ -0,0 +1,237 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A contribution or tax table compiled into sorted primitive arrays.
+ *
+ * Each bracket applies to amounts above its lower bound, up to the next bracket's, and
+ * gives a fixed amount plus a rate of the part above a starting point:
+ * <pre>
+ * result = amount + rate * (base - rateFrom)
+ * </pre>
+ * Amounts at or below the first bracket's lower bound give 0. All amounts are in
+ * centavos and rates in hundredths of a percent; results are rounded half up to a centavo.
+ *
+ * Batch lookups use the Vector API when the app is launched with
+ * {@code --add-modules jdk.incubator.vector}, and a scalar loop with the same results
+ * otherwise.
+ */
+public final class StatutoryTable {
+    /** Lower bound of a bracket that applies to every amount. */
+    public static final long NO_LOWER_BOUND = Long.MIN_VALUE;
+
+    private static final int BASIS_POINTS = 10_000;
+
+    // Whether the Vector API module is present; StatutoryTableVectors is only loaded if it is
+    static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    // Above this many brackets, blending every bracket per vector is slower than the scalar search
+    private static final int MAX_VECTOR_BRACKETS = 16;
+
+    /**
+     * A bracket: amounts above {@code over} give {@code amount} plus {@code rateBasisPoints}
+     * of the part above {@code rateFrom}.
+     */
+    public record Bracket(long over, long amount, int rateBasisPoints, long rateFrom) {
+        public Bracket {
+            if (rateBasisPoints < 0) {
+                throw new IllegalArgumentException("Bracket rate cannot be negative");
+            }
+        }
+
+        /**
+         * A bracket with a fixed amount and no rate.
+         */
+        public static Bracket fixed(long over, long amount) {
+            return new Bracket(over, amount, 0, 0);
+        }
+    }
+
+    // Lower bounds of the brackets, padded with Long.MAX_VALUE to a power of two so the
+    // search below always takes the same number of steps
+    private final long[] overs;
+    private final int searchStep;
+
+    // Indexed by the number of lower bounds below the base; index 0 is the zero row for
+    // bases at or below the first lower bound
+    private final long[] amounts;
+    private final int[] rates;
+    private final long[] rateFroms;
+
+    // Largest base magnitude whose rate part fits a long, or -1 if batch lookups stay scalar
+    private final long vectorLimit;
+
+    private StatutoryTable(long[] overs, int searchStep, long[] amounts, int[] rates, long[] rateFroms) {
+        this.overs = overs;
+        this.searchStep = searchStep;
+        this.amounts = amounts;
+        this.rates = rates;
+        this.rateFroms = rateFroms;
+        this.vectorLimit = vectorLimit(rates, rateFroms);
+    }
+
+    /**
+     * Bases and starting points within the limit keep twice the rate part, plus the
+     * rounding term, below 2^52, so the vector path needs no overflow checks and can
+     * divide exactly in doubles.
+     */
+    private static long vectorLimit(int[] rates, long[] rateFroms) {
+        long maxRate = 1;
+        for (int rate : rates) {
+            maxRate = Math.max(maxRate, rate);
+        }
+        long limit = ((1L << 52) - BASIS_POINTS) / (4 * maxRate);
+        for (long rateFrom : rateFroms) {
+            if (rateFrom > limit || rateFrom < -limit) {
+                return -1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Compiles brackets listed from the lowest lower bound.
+     */
+    public static StatutoryTable of(List<Bracket> brackets) {
+        if (brackets.isEmpty()) {
+            throw new IllegalArgumentException("A statutory table needs at least one bracket");
+        }
+        int count = brackets.size();
+        int searchStep = Integer.highestOneBit(count);
+        long[] overs = new long[2 * searchStep];
+        Arrays.fill(overs, Long.MAX_VALUE);
+        long[] amounts = new long[count + 1];
+        int[] rates = new int[count + 1];
+        long[] rateFroms = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            Bracket bracket = brackets.get(i);
+            if (i > 0 && bracket.over() <= overs[i - 1]) {
+                throw new IllegalArgumentException("Brackets must be listed from the lowest bound: " + bracket);
+            }
+            overs[i] = bracket.over();
+            amounts[i + 1] = bracket.amount();
+            rates[i + 1] = bracket.rateBasisPoints();
+            rateFroms[i + 1] = bracket.rateFrom();
+        }
+        return new StatutoryTable(overs, searchStep, amounts, rates, rateFroms);
+    }
+
+    /**
+     * Looks up the amount for a base, such as a gross wage or taxable income.
+     * @param base The base in centavos.
+     * @return The amount in centavos.
+     */
+    public long amountFor(long base) {
+        int row = rowFor(base);
+        return amounts[row] + Money.multiplyDivide(base - rateFroms[row], rates[row], BASIS_POINTS);
+    }
+
+    /**
+     * Looks up the amounts for several bases at once, for batch runs. Tables of up to
+     * sixteen brackets use the Vector API when it is available.
+     * @param bases Bases in centavos.
+     * @param out Receives the amount in centavos for each base, at the same index.
+     * @param count Number of bases to look up, from index 0.
+     */
+    public void amountsFor(long[] bases, long[] out, int count) {
+        amountsFor(bases, out, count, VECTOR_API);
+    }
+
+    /**
+     * {@link #amountsFor(long[], long[], int)}, choosing whether to use the Vector API,
+     * for comparing the two paths.
+     */
+    void amountsFor(long[] bases, long[] out, int count, boolean useVectors) {
+        if (count < 0 || count > bases.length || count > out.length) {
+            throw new IllegalArgumentException("Count " + count + " does not fit the arrays");
+        }
+        int done = 0;
+        if (useVectors && VECTOR_API && vectorLimit >= 0 && bracketCount() <= MAX_VECTOR_BRACKETS) {
+            done = StatutoryTableVectors.amountsFor(this, overs, bracketCount(), amounts, rates, rateFroms,
+                vectorLimit, bases, out, count);
+        }
+        for (int i = done; i < count; i++) {
+            out[i] = amountFor(bases[i]);
+        }
+    }
+
+    /**
+     * Binary search for the number of lower bounds below the base. The number of steps
+     * only depends on the table, and each step is a compare and add the JIT can compile
+     * to a conditional move. The rounding in Money.multiplyDivide still branches on sign.
+     */
+    private int rowFor(long base) {
+        int row = 0;
+        for (int step = searchStep; step > 0; step >>= 1) {
+            row += overs[row + step - 1] < base ? step : 0;
+        }
+        return row;
+    }
+
+    public int bracketCount() {
+        return amounts.length - 1;
+    }
+
+    /**
+     * @return The brackets the table was compiled from.
+     */
+    public List<Bracket> brackets() {
+        List<Bracket> brackets = new ArrayList<>(bracketCount());
+        for (int i = 0; i < bracketCount(); i++) {
+            brackets.add(new Bracket(overs[i], amounts[i + 1], rates[i + 1], rateFroms[i + 1]));
+        }
+        return brackets;
+    }
+
+    // ================== LOADING ================== //
+
+    /**
+     * Loads a table from a bracket CSV with the columns Over, Amount, Rate (%) and Rate From,
+     * in pesos and percent, e.g. {@code 20832.00,0.00,20,20832.00}. An Over of "-" means the
+     * bracket has no lower bound; an empty Rate or Rate From counts as 0.
+     */
+    public static StatutoryTable load(Path path) throws IOException {
+        List<Bracket> brackets = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            reader.readLine(); // Skip header row
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] values = line.split(",", -1);
+                if (values.length < 2) {
+                    throw new IOException(path + " line " + lineNumber + ": expected Over,Amount,Rate (%),Rate From");
+                }
+                try {
+                    String over = values[0].trim();
+                    brackets.add(new Bracket(
+                        over.equals("-") ? NO_LOWER_BOUND : Money.parsePesos(over),
+                        Money.parsePesos(values[1]),
+                        // Percent with two decimals, read as hundredths of a percent
+                        (int) optional(values, 2),
+                        optional(values, 3)));
+                } catch (NumberFormatException | ArithmeticException e) {
+                    throw new IOException(path + " line " + lineNumber + ": invalid number in " + line, e);
+                }
+            }
+        }
+        try {
+            return of(brackets);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long optional(String[] values, int index) {
+        return index < values.length && !values[index].isBlank() ? Money.parsePesos(values[index]) : 0;
+    }
+}
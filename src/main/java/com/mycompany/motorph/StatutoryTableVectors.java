@@ -0,0 +1,78 @@
+package com.mycompany.motorph;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch lookup of a {@link StatutoryTable} with the Vector API, several bases per step.
+ *
+ * This class is only loaded when the jdk.incubator.vector module is present (see
+ * {@link StatutoryTable#amountsFor}); without it the table's scalar loop is used.
+ * Each lane selects its bracket with one compare and blend per bracket, then rounds the
+ * rate part half up by dividing by the constant 2 * 10,000.
+ *
+ * The division is done in doubles: on x86, LongVector's lanewise DIV and the long/double
+ * conversions are not compiled to vector instructions (JDK 17), and fall back to a slow
+ * per-lane loop. Integers below 2^52 are moved in and out of doubles by their bits, and
+ * the rounded quotient is corrected by one where it came out above the exact one, so the
+ * result is the exact integer quotient. Bases beyond the table's vector limit, where the
+ * scalar path could overflow and throw, are computed by the scalar path, so results and
+ * exceptions are the same either way.
+ */
+final class StatutoryTableVectors {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final double TWO_TO_52 = 0x1p52;
+    // Bits of 2^52; or-ed with an integer below 2^52 they give the double 2^52 + integer
+    private static final long EXPONENT_52 = Double.doubleToRawLongBits(TWO_TO_52);
+
+    private StatutoryTableVectors() {
+    }
+
+    /**
+     * Looks up the amounts of the first {@code count} bases, a whole vector at a time.
+     * @param overs Lower bounds of the brackets, lowest first.
+     * @param amounts Fixed amounts, rates in basis points and rate starting points, indexed
+     *                by the number of lower bounds below the base.
+     * @param limit Largest base magnitude whose doubled rate part stays below 2^52.
+     * @return Number of bases looked up, from index 0; the rest is left to the caller.
+     */
+    static int amountsFor(StatutoryTable table, long[] overs, int bracketCount, long[] amounts, int[] rates,
+                          long[] rateFroms, long limit, long[] bases, long[] out, int count) {
+        int end = SPECIES.loopBound(count);
+        for (int i = 0; i < end; i += SPECIES.length()) {
+            LongVector base = LongVector.fromArray(SPECIES, bases, i);
+            if (base.compare(VectorOperators.GT, limit).or(base.compare(VectorOperators.LT, -limit)).anyTrue()) {
+                for (int lane = i; lane < i + SPECIES.length(); lane++) {
+                    out[lane] = table.amountFor(bases[lane]);
+                }
+                continue;
+            }
+
+            // Brackets are sorted, so a lane's last matching bracket is its own
+            LongVector amount = LongVector.zero(SPECIES);
+            LongVector doubledRate = LongVector.zero(SPECIES);
+            LongVector rateFrom = LongVector.zero(SPECIES);
+            for (int bracket = 0; bracket < bracketCount; bracket++) {
+                VectorMask<Long> above = base.compare(VectorOperators.GT, overs[bracket]);
+                amount = amount.blend(amounts[bracket + 1], above);
+                doubledRate = doubledRate.blend(2L * rates[bracket + 1], above);
+                rateFrom = rateFrom.blend(rateFroms[bracket + 1], above);
+            }
+
+            // Money.multiplyDivide(base - rateFrom, rate, 10_000): half up, ties away from zero
+            LongVector doubled = base.sub(rateFrom).mul(doubledRate);
+            VectorMask<Long> negative = doubled.compare(VectorOperators.LT, 0);
+            LongVector dividend = doubled.abs().add(10_000);
+            // Nearest integer to dividend / 20,000, then one less if that is above it
+            DoubleVector divided = dividend.or(EXPONENT_52).viewAsFloatingLanes().sub(TWO_TO_52).div(20_000);
+            LongVector quotient = divided.add(TWO_TO_52).viewAsIntegralLanes().sub(EXPONENT_52);
+            quotient = quotient.blend(quotient.sub(1), quotient.mul(20_000).compare(VectorOperators.GT, dividend));
+            LongVector rounded = quotient.blend(quotient.neg(), negative);
+            amount.add(rounded).intoArray(out, i);
+        }
+        return end;
+    }
+}
@@ -0,0 +1,285 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SSS, PhilHealth, Pag-IBIG and withholding tax tables, each in one or more versions
+ * with the dates they are in effect.
+ *
+ * The versions are listed in a manifest CSV with the columns Table, Effective From,
+ * Effective To and File; an empty Effective From means the version applies to every
+ * earlier day, an empty Effective To that it is still in effect, and files are relative
+ * to the manifest. SSS files use the layout of SSSCont.csv, the
+ * others the bracket layout read by {@link StatutoryTable#load}.
+ *
+ * A loaded set of tables never changes. {@link #reload()} compiles a new set when the
+ * manifest or a table file has changed and swaps it in as a whole, so a payroll run that
+ * took its tables from {@link #current()} keeps using one consistent set.
+ */
+public final class StatutoryTables {
+    private static final String MANIFEST_PATH = "src/main/resources/StatutoryTables.csv";
+
+    public enum Kind {
+        SSS, PHILHEALTH, PAGIBIG, WITHHOLDING_TAX
+    }
+
+    /**
+     * A version of a table, in effect from {@code effectiveFrom} to {@code effectiveTo}
+     * inclusive; {@code effectiveFrom} is null for a version without a start, and
+     * {@code effectiveTo} is null while the version is still in effect.
+     */
+    public record Version(Kind kind, LocalDate effectiveFrom, LocalDate effectiveTo, StatutoryTable table) {
+        public boolean isInEffect(int epochDay) {
+            return (effectiveFrom == null || epochDay >= effectiveFrom.toEpochDay())
+                && (effectiveTo == null || epochDay <= effectiveTo.toEpochDay());
+        }
+    }
+
+    // Size and modified time of a file the tables were loaded from
+    private record FileStamp(long size, long modified) {
+        static FileStamp of(Path path) throws IOException {
+            return new FileStamp(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+        }
+    }
+
+    private static volatile StatutoryTables current;
+    private static WatchService watchService;
+
+    private final Path manifest;
+    private final Map<Kind, Version[]> versions;
+    private final Map<Path, FileStamp> files;
+
+    private StatutoryTables(Path manifest, Map<Kind, Version[]> versions, Map<Path, FileStamp> files) {
+        this.manifest = manifest;
+        this.versions = versions;
+        this.files = files;
+    }
+
+    /**
+     * @return The tables in use, loading them on first use.
+     */
+    public static StatutoryTables current() {
+        StatutoryTables tables = current;
+        if (tables == null) {
+            synchronized (StatutoryTables.class) {
+                if (current == null) {
+                    try {
+                        current = load(Path.of(MANIFEST_PATH));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to load statutory tables: " + e.getMessage(), e);
+                    }
+                }
+                tables = current;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Loads the tables again if the manifest or any table file changed since they were
+     * loaded, and swaps them in. If the new files cannot be loaded, the tables in use
+     * are kept.
+     * @return Whether new tables were swapped in.
+     */
+    public static synchronized boolean reload() {
+        StatutoryTables tables = current();
+        if (!tables.isStale()) {
+            return false;
+        }
+        try {
+            current = load(tables.manifest);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error reloading statutory tables, keeping the loaded ones: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the tables in use with ones loaded from another manifest.
+     */
+    public static synchronized void use(Path manifest) throws IOException {
+        current = load(manifest);
+    }
+
+    /**
+     * Loads and compiles every table version listed in a manifest.
+     */
+    public static StatutoryTables load(Path manifest) throws IOException {
+        Path manifestPath = manifest.toAbsolutePath().normalize();
+        Map<Path, FileStamp> files = new LinkedHashMap<>();
+        files.put(manifestPath, FileStamp.of(manifestPath));
+
+        Map<Kind, List<Version>> byKind = new EnumMap<>(Kind.class);
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath)) {
+            reader.readLine(); // Skip header row
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] values = line.split(",", -1);
+                if (values.length < 4) {
+                    throw new IOException(manifestPath + " line " + lineNumber
+                        + ": expected Table,Effective From,Effective To,File");
+                }
+                Kind kind;
+                LocalDate from;
+                LocalDate to;
+                try {
+                    kind = Kind.valueOf(values[0].trim());
+                    from = values[1].isBlank() ? null : LocalDate.parse(values[1].trim());
+                    to = values[2].isBlank() ? null : LocalDate.parse(values[2].trim());
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    throw new IOException(manifestPath + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                if (from != null && to != null && to.isBefore(from)) {
+                    throw new IOException(manifestPath + " line " + lineNumber + ": effective to is before effective from");
+                }
+
+                Path file = manifestPath.resolveSibling(values[3].trim()).normalize();
+                files.put(file, FileStamp.of(file));
+                StatutoryTable table = kind == Kind.SSS ? SSS.loadSchedule(file) : StatutoryTable.load(file);
+                byKind.computeIfAbsent(kind, k -> new ArrayList<>()).add(new Version(kind, from, to, table));
+            }
+        }
+
+        Map<Kind, Version[]> versions = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            List<Version> list = byKind.getOrDefault(kind, List.of());
+            if (list.isEmpty()) {
+                throw new IOException(manifestPath + " lists no " + kind + " table");
+            }
+            list.sort(Comparator.comparing(Version::effectiveFrom, Comparator.nullsFirst(Comparator.naturalOrder())));
+            for (int i = 1; i < list.size(); i++) {
+                LocalDate previousEnd = list.get(i - 1).effectiveTo();
+                LocalDate start = list.get(i).effectiveFrom();
+                if (previousEnd == null || start == null || !previousEnd.isBefore(start)) {
+                    throw new IOException(manifestPath + ": " + kind + " version from "
+                        + (start == null ? "the start" : start) + " overlaps an earlier version");
+                }
+            }
+            versions.put(kind, list.toArray(new Version[0]));
+        }
+        return new StatutoryTables(manifestPath, versions, files);
+    }
+
+    private boolean isStale() {
+        for (Map.Entry<Path, FileStamp> file : files.entrySet()) {
+            try {
+                if (!FileStamp.of(file.getKey()).equals(file.getValue())) {
+                    return true;
+                }
+            } catch (IOException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ================== LOOKUP ================== //
+
+    /**
+     * @return The version of a table in effect on a day.
+     * @throws IllegalStateException If no version is in effect on that day.
+     */
+    public Version versionFor(Kind kind, int epochDay) {
+        Version[] kindVersions = versions.get(kind);
+        for (int i = kindVersions.length - 1; i >= 0; i--) {
+            if (kindVersions[i].isInEffect(epochDay)) {
+                return kindVersions[i];
+            }
+        }
+        throw new IllegalStateException("No " + kind + " table is in effect on " + LocalDate.ofEpochDay(epochDay));
+    }
+
+    public StatutoryTable tableFor(Kind kind, int epochDay) {
+        return versionFor(kind, epochDay).table();
+    }
+
+    public StatutoryTable tableFor(Kind kind, LocalDate date) {
+        return tableFor(kind, (int) date.toEpochDay());
+    }
+
+    /**
+     * @return Every version of a table, oldest first.
+     */
+    public List<Version> versions(Kind kind) {
+        return List.of(versions.get(kind));
+    }
+
+    /**
+     * Day whose tables apply to a pay week: the week's first day, or the first of the
+     * month if the month has no such week.
+     */
+    static int payWeekEpochDay(int year, int month, int week) {
+        int[] days = AttendanceRecord.targetWeekEpochDays(year, month, week);
+        return days[0] <= days[1] ? days[0] : (int) LocalDate.of(year, month, 1).toEpochDay();
+    }
+
+    static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    // ================== WATCHING ================== //
+
+    /**
+     * Starts a daemon thread that reloads the tables whenever a file in the manifest's
+     * directory is modified.
+     */
+    public static synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        Path directory = current().manifest.getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watch(service), "statutory-table-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching the table files.
+     */
+    public static synchronized void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    private static void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // Events only hint at a change; reload compares the files the tables came from
+                key.pollEvents();
+                key.reset();
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching stopped
+        }
+    }
+}
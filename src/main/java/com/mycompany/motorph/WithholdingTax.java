@@ -1,5 +1,8 @@
 package com.mycompany.motorph;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class WithholdingTax extends Calculation {
     private double tax;
     private final double taxableIncome;
@@ -15,23 +18,118 @@ public class WithholdingTax extends Calculation {
 
     @Override
     public double calculate() {
-        // Updated Philippine tax brackets (2024)
-        if (taxableIncome <= 20832) {
-            tax = 0;
-        } else if (taxableIncome <= 33333) {
-            tax = (taxableIncome - 20832) * 0.20;
-        } else if (taxableIncome <= 66667) {
-            tax = 2500 + (taxableIncome - 33333) * 0.25;
-        } else if (taxableIncome <= 166667) {
-            tax = 10833 + (taxableIncome - 66667) * 0.30;
-        } else if (taxableIncome <= 666667) {
-            tax = 40833.33 + (taxableIncome - 166667) * 0.32;
-        } else {
-            tax = 200833.33 + (taxableIncome - 666667) * 0.35;
-        }
+        GrossResult result = grosswage.getResult();
+        int payDay = StatutoryTables.payWeekEpochDay(result.year(), result.month(), result.week());
+        tax = Money.toPesos(taxFor(Money.ofPesos(taxableIncome), payDay));
         return tax;
     }
 
+    /**
+     * A tax bracket: income above {@code over} is taxed at {@code base} plus {@code percent}
+     * of the excess. Amounts are in centavos.
+     */
+    public record Bracket(long over, long base, int percent) {
+    }
+
+    /**
+     * Calculates the withholding tax on a taxable income with the table in effect today.
+     * @param taxableIncome Taxable income in centavos.
+     * @return The tax in centavos.
+     */
+    public static long taxFor(long taxableIncome) {
+        return taxFor(taxableIncome, StatutoryTables.today());
+    }
+
+    /**
+     * Calculates the withholding tax on a taxable income with the table in effect on a day.
+     * @param epochDay The pay day, as an epoch day.
+     */
+    public static long taxFor(long taxableIncome, int epochDay) {
+        return StatutoryTables.current().tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, epochDay)
+            .amountFor(taxableIncome);
+    }
+
+    /**
+     * Calculates the withholding tax on several taxable incomes at once with the table in
+     * effect on a day, for batch runs.
+     * @param taxableIncomes Taxable incomes in centavos.
+     * @param out Receives the tax in centavos for each income, at the same index.
+     * @param count Number of incomes to compute, from index 0.
+     */
+    public static void taxesFor(long[] taxableIncomes, long[] out, int count, int epochDay) {
+        StatutoryTables.current().tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, epochDay)
+            .amountsFor(taxableIncomes, out, count);
+    }
+
+    // ================== ANNUALIZATION ================== //
+
+    /**
+     * How often an income is paid. The tax table is the monthly one, so income paid at
+     * another frequency is annualized to its monthly equivalent before the table applies.
+     */
+    public enum PayFrequency {
+        WEEKLY(52), SEMI_MONTHLY(24), MONTHLY(12), ANNUAL(1);
+
+        private final int periodsPerYear;
+
+        PayFrequency(int periodsPerYear) {
+            this.periodsPerYear = periodsPerYear;
+        }
+
+        public int periodsPerYear() {
+            return periodsPerYear;
+        }
+    }
+
+    /**
+     * Calculates the withholding tax on one period's taxable income by annualizing it: the
+     * income is scaled to a month, taxed with the table in effect on a day, and the tax
+     * scaled back to the period. Both scalings round half up to a centavo.
+     * @param taxableIncome Taxable income of one pay period, in centavos.
+     * @param epochDay The pay day, as an epoch day.
+     * @return The tax for the period in centavos.
+     */
+    public static long taxFor(long taxableIncome, PayFrequency frequency, int epochDay) {
+        StatutoryTable table = StatutoryTables.current().tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, epochDay);
+        return annualizedTax(table, taxableIncome, frequency.periodsPerYear());
+    }
+
+    /**
+     * Calculates the annualized withholding tax on several taxable incomes paid at the same
+     * frequency, as {@link #taxFor(long, PayFrequency, int)} does for one.
+     */
+    public static void taxesFor(long[] taxableIncomes, long[] out, int count, PayFrequency frequency, int epochDay) {
+        if (count < 0 || count > taxableIncomes.length || count > out.length) {
+            throw new IllegalArgumentException("Count " + count + " does not fit the arrays");
+        }
+        StatutoryTable table = StatutoryTables.current().tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, epochDay);
+        int periodsPerYear = frequency.periodsPerYear();
+        for (int i = 0; i < count; i++) {
+            out[i] = annualizedTax(table, taxableIncomes[i], periodsPerYear);
+        }
+    }
+
+    private static long annualizedTax(StatutoryTable monthlyTable, long taxableIncome, int periodsPerYear) {
+        if (periodsPerYear == 12) {
+            return monthlyTable.amountFor(taxableIncome);
+        }
+        long monthlyIncome = Money.multiplyDivide(taxableIncome, periodsPerYear, 12);
+        return Money.multiplyDivide(monthlyTable.amountFor(monthlyIncome), 12, periodsPerYear);
+    }
+
+    /**
+     * Compiles tax brackets into a table. Income up to the first bracket is not taxed.
+     * @param brackets Brackets sorted by {@code over}, lowest first.
+     */
+    public static StatutoryTable tableOf(List<Bracket> brackets) {
+        List<StatutoryTable.Bracket> compiled = new ArrayList<>(brackets.size());
+        for (Bracket bracket : brackets) {
+            compiled.add(new StatutoryTable.Bracket(bracket.over(), bracket.base(), bracket.percent() * 100,
+                bracket.over()));
+        }
+        return StatutoryTable.of(compiled);
+    }
+
     // Getters
     public double getTax() {
         return tax;
@@ -0,0 +1,89 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AttendanceFieldParserTest {
+    // The formatters the loader tried in turn before the field parser
+    private static final List<DateTimeFormatter> DATE_FORMATTERS = List.of(
+        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    private static final List<DateTimeFormatter> TIME_FORMATTERS = List.of(
+        DateTimeFormatter.ofPattern("H:mm"),
+        DateTimeFormatter.ofPattern("HH:mm"),
+        DateTimeFormatter.ofPattern("H:mm:ss"),
+        DateTimeFormatter.ofPattern("HH:mm:ss"));
+
+    @Test
+    void everyDateOfBothShapesMatchesTheFormatters() {
+        for (LocalDate date = LocalDate.of(2023, 1, 1); date.isBefore(LocalDate.of(2025, 1, 1)); date = date.plusDays(1)) {
+            String slashed = "%02d/%02d/%d".formatted(date.getMonthValue(), date.getDayOfMonth(), date.getYear());
+            assertEquals(formatterEpochDay(slashed), AttendanceFieldParser.parseEpochDay(slashed), slashed);
+            assertEquals(formatterEpochDay(date.toString()), AttendanceFieldParser.parseEpochDay(date.toString()),
+                date.toString());
+        }
+    }
+
+    @Test
+    void unusualDatesMatchTheFormatters() {
+        for (String field : List.of("02/29/2024", "02/30/2024", "02/29/2023", "04/31/2024", "2024-06-31",
+                "12/31/0024", "01/05/0024", "00/10/2024", "13/01/2024", "06/00/2024", "06/32/2024",
+                "2024/06/03", "6/3/2024", "06-03-2024", "06/03/24", "0a/03/2024", "", "   ")) {
+            assertEquals(formatterEpochDay(field), AttendanceFieldParser.parseEpochDay(field), field);
+        }
+    }
+
+    @Test
+    void everyTimeOfEveryShapeMatchesTheFormatters() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            int hour = minute / 60;
+            for (String field : List.of("%d:%02d".formatted(hour, minute % 60), "%02d:%02d".formatted(hour, minute % 60),
+                    "%d:%02d:%02d".formatted(hour, minute % 60, minute % 60),
+                    "%02d:%02d:00".formatted(hour, minute % 60))) {
+                assertEquals(formatterMinute(field), AttendanceFieldParser.parseMinuteOfDay(field), field);
+            }
+        }
+    }
+
+    @Test
+    void invalidTimesMatchTheFormatters() {
+        for (String field : List.of("24:00", "24:00:00", "24:01", "24:00:01", "25:00", "7:60", "7:5", "07:5", "7:30:60", "7:30:5", "7.30", "730", ":30",
+                "a:30", "", "7:30:")) {
+            assertEquals(formatterMinute(field), AttendanceFieldParser.parseMinuteOfDay(field), field);
+        }
+    }
+
+    @Test
+    void quotesAndWhitespaceAroundFieldsAreIgnored() {
+        assertEquals(formatterEpochDay("06/03/2024"), AttendanceFieldParser.parseEpochDay(" \"06/03/2024\" "));
+        assertEquals(8 * 60 + 59, AttendanceFieldParser.parseMinuteOfDay("\"8:59\"\r"));
+    }
+
+    private static int formatterEpochDay(String field) {
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return (int) LocalDate.parse(field.trim(), formatter).toEpochDay();
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        return AttendanceFieldParser.INVALID_DATE;
+    }
+
+    private static int formatterMinute(String field) {
+        for (DateTimeFormatter formatter : TIME_FORMATTERS) {
+            try {
+                return LocalTime.parse(field.trim(), formatter).toSecondOfDay() / 60;
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        return AttendanceFieldParser.INVALID_TIME;
+    }
+}
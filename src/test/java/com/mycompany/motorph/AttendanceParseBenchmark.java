@@ -0,0 +1,132 @@
+package com.mycompany.motorph;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Date and time fields of 200,000 attendance rows: the formatters the loader tried in turn
+ * against AttendanceFieldParser, for rows in either supported shape. Scores are per row
+ * (one date and two times). Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main AttendanceParseBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(AttendanceParseBenchmark.ROWS)
+public class AttendanceParseBenchmark {
+    static final int ROWS = 200_000;
+
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd")
+    };
+
+    private static final DateTimeFormatter[] TIME_FORMATTERS = {
+        DateTimeFormatter.ofPattern("H:mm"),
+        DateTimeFormatter.ofPattern("HH:mm"),
+        DateTimeFormatter.ofPattern("H:mm:ss"),
+        DateTimeFormatter.ofPattern("HH:mm:ss")
+    };
+
+    // MM/dd/yyyy with H:mm times, or yyyy-MM-dd with HH:mm:ss times
+    @Param({"MM/dd/yyyy", "yyyy-MM-dd"})
+    public String shape;
+
+    private final byte[][] lines = new byte[ROWS][];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(28);
+            int hourIn = 7 + random.nextInt(4);
+            int hourOut = 16 + random.nextInt(5);
+            int minuteIn = random.nextInt(60);
+            int minuteOut = random.nextInt(60);
+            String line = shape.equals("MM/dd/yyyy")
+                ? String.format("%02d/%02d/2024,%d:%02d,%d:%02d", month, day, hourIn, minuteIn, hourOut, minuteOut)
+                : String.format("2024-%02d-%02d,%02d:%02d:00,%02d:%02d:00",
+                    month, day, hourIn, minuteIn, hourOut, minuteOut);
+            lines[i] = line.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Benchmark
+    public long formatters() {
+        long sum = 0;
+        for (byte[] line : lines) {
+            String[] values = new String(line, StandardCharsets.US_ASCII).split(",");
+            sum += parseDate(values[0]).toEpochDay();
+            sum += parseTime(values[1]).toSecondOfDay();
+            sum += parseTime(values[2]).toSecondOfDay();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long fieldParser() {
+        long sum = 0;
+        for (byte[] line : lines) {
+            int firstComma = indexOf(line, 0);
+            int secondComma = indexOf(line, firstComma + 1);
+            sum += AttendanceFieldParser.parseEpochDay(line, 0, firstComma);
+            sum += AttendanceFieldParser.parseMinuteOfDay(line, firstComma + 1, secondComma);
+            sum += AttendanceFieldParser.parseMinuteOfDay(line, secondComma + 1, line.length);
+        }
+        return sum;
+    }
+
+    private static int indexOf(byte[] line, int from) {
+        for (int i = from; i < line.length; i++) {
+            if (line[i] == ',') {
+                return i;
+            }
+        }
+        return line.length;
+    }
+
+    private static LocalDate parseDate(String value) {
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return LocalDate.parse(value, formatter);
+            } catch (DateTimeParseException e) {
+                // Try next format
+            }
+        }
+        throw new IllegalStateException("Unparseable date " + value);
+    }
+
+    private static LocalTime parseTime(String value) {
+        for (DateTimeFormatter formatter : TIME_FORMATTERS) {
+            try {
+                return LocalTime.parse(value, formatter);
+            } catch (DateTimeParseException e) {
+                // Try next format
+            }
+        }
+        throw new IllegalStateException("Unparseable time " + value);
+    }
+}
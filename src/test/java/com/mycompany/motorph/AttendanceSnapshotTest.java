@@ -0,0 +1,93 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceSnapshotTest {
+    private static final long CSV_SIZE = 1234;
+    private static final long CSV_MODIFIED = 1_717_400_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshotReadsBackTheStore() throws IOException {
+        AttendanceStore store = sampleStore();
+        Path path = dir.resolve("attendance.csv.snapshot");
+        AttendanceSnapshot.write(path, store, CSV_SIZE, CSV_MODIFIED, 5);
+
+        AttendanceSnapshot.Snapshot snapshot = AttendanceSnapshot.read(path, CSV_SIZE, CSV_MODIFIED);
+        assertNotNull(snapshot);
+        assertEquals(5, snapshot.lineCount());
+        assertEquals(store.asRecordList().toString(), snapshot.store().asRecordList().toString());
+        assertEquals("Antonio Lim", snapshot.store().employeeName(snapshot.store().keyOf("10002")));
+    }
+
+    @Test
+    void anyFlippedByteFailsTheChecksum() throws IOException {
+        Path path = dir.resolve("attendance.csv.snapshot");
+        AttendanceSnapshot.write(path, sampleStore(), CSV_SIZE, CSV_MODIFIED, 5);
+        byte[] content = Files.readAllBytes(path);
+
+        // Every byte after the fields that identify the CSV, including the checksum itself
+        for (int i = 24; i < content.length; i++) {
+            byte[] corrupt = content.clone();
+            corrupt[i] ^= 0x10;
+            Files.write(path, corrupt);
+            assertNull(AttendanceSnapshot.read(path, CSV_SIZE, CSV_MODIFIED), "byte " + i);
+        }
+    }
+
+    @Test
+    void snapshotOfAnotherVersionOfTheCsvIsIgnored() throws IOException {
+        Path path = dir.resolve("attendance.csv.snapshot");
+        AttendanceSnapshot.write(path, sampleStore(), CSV_SIZE, CSV_MODIFIED, 5);
+
+        assertNull(AttendanceSnapshot.read(path, CSV_SIZE + 1, CSV_MODIFIED));
+        assertNull(AttendanceSnapshot.read(path, CSV_SIZE, CSV_MODIFIED + 1));
+        assertNull(AttendanceSnapshot.read(dir.resolve("missing.snapshot"), CSV_SIZE, CSV_MODIFIED));
+
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 9));
+        assertNull(AttendanceSnapshot.read(path, CSV_SIZE, CSV_MODIFIED));
+    }
+
+    @Test
+    void corruptSnapshotFallsBackToParsingTheCsv() throws IOException {
+        Path csv = dir.resolve("attendance.csv");
+        Files.writeString(csv, "Employee #,Last Name,First Name,Date,Log In,Log Out\n"
+            + "10001,Garcia,Manuel III,06/03/2024,8:59,18:31\n"
+            + "10002,Lim,Antonio,06/03/2024,10:35,19:44\n");
+        AttendanceStore parsed;
+        try (AttendanceSource source = new AttendanceSource(csv.toString(), null)) {
+            parsed = source.reload();
+        }
+        Path snapshot = AttendanceSnapshot.pathFor(csv);
+        byte[] content = Files.readAllBytes(snapshot);
+        content[content.length - 20] ^= 0x01;
+        Files.write(snapshot, content);
+
+        try (AttendanceSource source = new AttendanceSource(csv.toString(), null)) {
+            assertEquals(parsed.asRecordList().toString(), source.reload().asRecordList().toString());
+        }
+        // Parsing again rewrote a good snapshot
+        assertNotNull(AttendanceSnapshot.read(snapshot, Files.size(csv), Files.getLastModifiedTime(csv).toMillis()));
+    }
+
+    private static AttendanceStore sampleStore() {
+        return new AttendanceStore.Builder()
+            .add("10001", "Manuel III", "Garcia", 19877, 8 * 60 + 59, 18 * 60 + 31)
+            .add("10002", "Antonio", "Lim", 19877, 10 * 60 + 35, 19 * 60 + 44)
+            .add("10001", "Manuel III", "Garcia", 19878, 9 * 60 + 47, 19 * 60 + 7)
+            .add("10001", "Manuel III", "Garcia", 19876, 8 * 60 + 2, 17 * 60 + 15)
+            .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceSourceTest {
+    private static final String HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out\n";
+
+    @TempDir
+    Path dir;
+
+    private Path csv;
+    private final List<AttendanceStore> published = new ArrayList<>();
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        csv = dir.resolve("attendance.csv");
+        Files.writeString(csv, HEADER
+            + "10001,Garcia,Manuel III,06/03/2024,8:59,18:31\n"
+            + "10002,Lim,Antonio,06/03/2024,10:35,19:44\n"
+            + "10001,Garcia,Manuel III,06/04/2024,9:47,19:07\n");
+    }
+
+    @Test
+    void appendedRowsAreParsedAsATail() throws IOException {
+        try (AttendanceSource source = new AttendanceSource(csv.toString(), (from, store) -> published.add(store))) {
+            AttendanceStore loaded = source.refresh();
+            assertEquals(3, loaded.size());
+
+            append("10001,Garcia,Manuel III,06/05/2024,8:00,17:00\n10003,Aquino,Bianca Sofia,06/05/2024,8:10,17:00\n");
+            AttendanceStore refreshed = source.refresh();
+
+            assertEquals(5, refreshed.size());
+            assertEquals(3, refreshed.rowCount(refreshed.keyOf("10001")));
+            assertEquals("Bianca Sofia Aquino", refreshed.employeeName(refreshed.keyOf("10003")));
+            // Appended, not reloaded: Lim's rows are the very same arrays
+            assertTrue(refreshed.sharesRows(refreshed.keyOf("10002"), loaded, loaded.keyOf("10002")));
+            assertEquals(List.of(loaded, refreshed), published);
+
+            assertSame(refreshed, source.refresh());
+            assertEquals(2, published.size());
+        }
+    }
+
+    @Test
+    void partiallyWrittenLineWaitsForItsLineBreak() throws IOException {
+        try (AttendanceSource source = new AttendanceSource(csv.toString(), null)) {
+            source.refresh();
+            append("10002,Lim,Antonio,06/04/2024,10:");
+            assertEquals(3, source.refresh().size());
+
+            append("05,19:00\n");
+            AttendanceStore store = source.refresh();
+            assertEquals(4, store.size());
+            int lim = store.keyOf("10002");
+            assertEquals(10 * 60 + 5, store.minuteIn(lim, 1));
+        }
+    }
+
+    @Test
+    void rewrittenFileIsLoadedAgain() throws IOException {
+        try (AttendanceSource source = new AttendanceSource(csv.toString(), null)) {
+            AttendanceStore loaded = source.refresh();
+
+            // Same size, one corrected time
+            String corrected = Files.readString(csv).replace("10:35,19:44", "10:25,19:44");
+            Files.writeString(csv, corrected);
+            Files.setLastModifiedTime(csv, FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 2000));
+            AttendanceStore reloaded = source.refresh();
+
+            int lim = reloaded.keyOf("10002");
+            assertEquals(10 * 60 + 25, reloaded.minuteIn(lim, 0));
+            assertFalse(reloaded.sharesRows(lim, loaded, loaded.keyOf("10002")));
+            assertEquals(3, reloaded.size());
+
+            // Truncated to fewer rows
+            Files.writeString(csv, HEADER + "10001,Garcia,Manuel III,06/03/2024,8:59,18:31\n");
+            AttendanceStore truncated = source.refresh();
+            assertEquals(1, truncated.size());
+            assertEquals((int) LocalDate.of(2024, 6, 3).toEpochDay(), truncated.epochDay(0, 0));
+        }
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(csv, text, StandardOpenOption.APPEND);
+    }
+}
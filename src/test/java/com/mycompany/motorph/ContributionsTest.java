@@ -0,0 +1,60 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ContributionsTest {
+    private static final int PAY_DAY = StatutoryTables.payWeekEpochDay(2024, 6, 2);
+
+    @Test
+    void philhealthIsHalfOfThreePercentUpToTheCeiling() {
+        assertEquals(750_00L, Philhealth.contributionFor(50_000_00L, PAY_DAY));
+        assertEquals(900_00L, Philhealth.contributionFor(60_000_00L, PAY_DAY));
+        assertEquals(1_800_00L, Philhealth.contributionFor(60_000_01L, PAY_DAY));
+        assertEquals(3_000_00L, Philhealth.contributionAtRate(70_000_00L, 500, PAY_DAY));
+        assertEquals(500_00L, Philhealth.contributionAtRate(20_000_00L, 500, PAY_DAY));
+    }
+
+    @Test
+    void pagibigFollowsItsBands() {
+        assertEquals(40_00L, Pagibig.contributionFor(1_000_00L, PAY_DAY));
+        assertEquals(36_00L, Pagibig.contributionFor(1_200_00L, PAY_DAY));
+        assertEquals(100_00L, Pagibig.contributionFor(3_000_00L, PAY_DAY));
+    }
+
+    @Test
+    void sssBracketEdgesBelongToTheLowerBracket() {
+        assertEquals(135_00L, SSS.contributionFor(1_00L, PAY_DAY));
+        assertEquals(135_00L, SSS.contributionFor(3_249_99L, PAY_DAY));
+        assertEquals(135_00L, SSS.contributionFor(3_250_00L, PAY_DAY));
+        assertEquals(157_50L, SSS.contributionFor(3_250_01L, PAY_DAY));
+        assertEquals(157_50L, SSS.contributionFor(3_750_00L, PAY_DAY));
+        assertEquals(180_00L, SSS.contributionFor(3_750_01L, PAY_DAY));
+        assertEquals(1_102_50L, SSS.contributionFor(24_750_00L, PAY_DAY));
+        assertEquals(1_125_00L, SSS.contributionFor(24_750_01L, PAY_DAY));
+        assertEquals(1_125_00L, SSS.contributionFor(500_000_00L, PAY_DAY));
+    }
+
+    @Test
+    void batchContributionsMatchSingleOnes() {
+        Random random = new Random(7);
+        int count = 10_007;
+        long[] grossWages = new long[count];
+        for (int i = 0; i < count; i++) {
+            grossWages[i] = random.nextInt(4) == 0 ? 500_00L + random.nextInt(2_500_00) : random.nextInt(80_000_00);
+        }
+        long[] philhealth = new long[count];
+        long[] pagibig = new long[count];
+        long[] sss = new long[count];
+        Philhealth.contributionsFor(grossWages, philhealth, count, PAY_DAY);
+        Pagibig.contributionsFor(grossWages, pagibig, count, PAY_DAY);
+        SSS.contributionsFor(grossWages, sss, count, PAY_DAY);
+        for (int i = 0; i < count; i++) {
+            assertEquals(Philhealth.contributionFor(grossWages[i], PAY_DAY), philhealth[i], "PhilHealth of " + grossWages[i]);
+            assertEquals(Pagibig.contributionFor(grossWages[i], PAY_DAY), pagibig[i], "Pag-IBIG of " + grossWages[i]);
+            assertEquals(SSS.contributionFor(grossWages[i], PAY_DAY), sss[i], "SSS of " + grossWages[i]);
+        }
+    }
+}
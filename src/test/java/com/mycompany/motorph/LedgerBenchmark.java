@@ -0,0 +1,76 @@
+package com.mycompany.motorph;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of bringing the weekly totals up to date after one day of attendance is appended
+ * for one employee, against building them in full, for 1,000 employees with a growing
+ * history of weekday rows. Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main LedgerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class LedgerBenchmark {
+    private static final int EMPLOYEES = 1_000;
+
+    @Param({"3", "12", "48"})
+    public int months;
+
+    private AttendanceStore store;
+    private AttendanceStore tail;
+    private PayWeekCube cube;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        LocalDate end = first.plusMonths(months);
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (LocalDate date = first; date.isBefore(end); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            for (int i = 0; i < EMPLOYEES; i++) {
+                builder.add(String.valueOf(10001 + i), "Employee", String.valueOf(i), (int) date.toEpochDay(),
+                    7 * 60 + 30 + random.nextInt(90), 17 * 60 + random.nextInt(120));
+            }
+        }
+        store = builder.build();
+        tail = new AttendanceStore.Builder()
+            .add("10500", "Employee", "499", (int) end.toEpochDay(), 8 * 60 + 20, 18 * 60)
+            .build();
+        cube = PayWeekCube.update(null, store, Map.of());
+    }
+
+    @Benchmark
+    public PayWeekCube appendDay() {
+        AttendanceStore latest = store.append(tail);
+        return PayWeekCube.update(cube, latest, latest.changedDaysSince(store));
+    }
+
+    @Benchmark
+    public PayWeekCube fullBuild() {
+        return PayWeekCube.update(null, store.append(tail), Map.of());
+    }
+}
@@ -0,0 +1,127 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    // ================== MULTIPLY DIVIDE ================== //
+
+    @Test
+    void multiplyDivideRoundsHalfUp() {
+        assertEquals(1, Money.multiplyDivide(1, 1, 2));
+        assertEquals(2, Money.multiplyDivide(3, 1, 2));
+        assertEquals(0, Money.multiplyDivide(1, 1, 4));
+        assertEquals(1, Money.multiplyDivide(3, 1, 4));
+        assertEquals(2, Money.multiplyDivide(5, 1, 3));
+        assertEquals(0, Money.multiplyDivide(1, 1, 3));
+    }
+
+    @Test
+    void multiplyDivideRoundsNegativeTiesAwayFromZero() {
+        assertEquals(-1, Money.multiplyDivide(-1, 1, 2));
+        assertEquals(-2, Money.multiplyDivide(-3, 1, 2));
+        assertEquals(-2, Money.multiplyDivide(5, -1, 3));
+        assertEquals(0, Money.multiplyDivide(-1, 1, 4));
+    }
+
+    @Test
+    void multiplyDivideIsExactForWholeResults() {
+        assertEquals(12_345_678_900L, Money.multiplyDivide(12_345_678_900L, 7, 7));
+        assertEquals(37_50, Money.multiplyDivide(150_00, 2_500, 10_000));
+    }
+
+    @Test
+    void multiplyDivideMatchesDecimalRounding() {
+        for (long amount = -5_000; amount <= 5_000; amount += 7) {
+            for (long denominator : new long[]{2, 3, 4, 60, 100, 6000, 10_000}) {
+                long expected = BigDecimal.valueOf(amount * 13)
+                    .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP).longValueExact();
+                assertEquals(expected, Money.multiplyDivide(amount, 13, denominator),
+                    amount + " * 13 / " + denominator);
+            }
+        }
+    }
+
+    @Test
+    void multiplyDivideThrowsOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.multiplyDivide(Long.MAX_VALUE, 2, 3));
+        // The doubled product overflows even though the product itself fits
+        assertThrows(ArithmeticException.class, () -> Money.multiplyDivide(Long.MAX_VALUE / 2 + 1, 1, 1));
+    }
+
+    @Test
+    void percentOfRoundsHalfUp() {
+        assertEquals(150, Money.percentOf(1250, 12));
+        assertEquals(1, Money.percentOf(5, 10));
+        assertEquals(-1, Money.percentOf(-5, 10));
+    }
+
+    // ================== PESOS ================== //
+
+    @Test
+    void ofPesosRoundsTheDecimalValueHalfUp() {
+        // Each of these doubles is slightly below the decimal it is written as
+        assertEquals(13, Money.ofPesos(0.125));
+        assertEquals(101, Money.ofPesos(1.005));
+        assertEquals(268, Money.ofPesos(2.675));
+        assertEquals(1, Money.ofPesos(0.005));
+        assertEquals(-13, Money.ofPesos(-0.125));
+        assertEquals(-101, Money.ofPesos(-1.005));
+    }
+
+    @Test
+    void ofPesosConvertsOrdinaryAmounts() {
+        assertEquals(0, Money.ofPesos(0));
+        assertEquals(0, Money.ofPesos(0.0049));
+        assertEquals(12_345, Money.ofPesos(123.45));
+        assertEquals(53_571, Money.ofPesos(535.71));
+        assertEquals(-12_345, Money.ofPesos(-123.45));
+    }
+
+    @Test
+    void ofPesosAroundTheLargeAmountFallback() {
+        // Scaled amounts from 1e9 centavos up are converted as decimals
+        assertEquals(999_999_999, Money.ofPesos(9_999_999.99));
+        assertEquals(1_000_000_000, Money.ofPesos(9_999_999.995));
+        assertEquals(1_000_000_000, Money.ofPesos(10_000_000.0));
+        assertEquals(1_000_000_001, Money.ofPesos(10_000_000.005));
+        assertEquals(123_456_789_012L, Money.ofPesos(1_234_567_890.12));
+    }
+
+    @Test
+    void ofPesosMatchesDecimalRoundingOfThousandths() {
+        for (long thousandths = -200_000; thousandths <= 2_000_000; thousandths++) {
+            assertOfPesosMatchesDecimal(thousandths / 1000.0);
+        }
+        // Both sides of the fast path's limit
+        for (long thousandths = 9_999_990_000L; thousandths <= 10_000_010_000L; thousandths++) {
+            assertOfPesosMatchesDecimal(thousandths / 1000.0);
+        }
+    }
+
+    private static void assertOfPesosMatchesDecimal(double pesos) {
+        long expected = BigDecimal.valueOf(pesos).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        assertEquals(expected, Money.ofPesos(pesos), () -> "ofPesos(" + pesos + ")");
+    }
+
+    @Test
+    void parsePesosReadsSeparatorsAndRoundsHalfUp() {
+        assertEquals(112_500, Money.parsePesos("1,125.00"));
+        assertEquals(2_000, Money.parsePesos(" 20 "));
+        assertEquals(13, Money.parsePesos("0.125"));
+        assertEquals(-13, Money.parsePesos("-0.125"));
+        assertThrows(NumberFormatException.class, () -> Money.parsePesos("twenty"));
+    }
+
+    @Test
+    void toPesosIsTheInverseOfOfPesos() {
+        for (long centavos = -10_000; centavos <= 10_000; centavos++) {
+            assertEquals(centavos, Money.ofPesos(Money.toPesos(centavos)));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PayWeekCubeTest {
+    @Test
+    void strayYearOnlyAddsItsOwnMonth() {
+        // 01/05/0024 typed for 01/05/2024, two thousand years before the other rows
+        AttendanceStore store = new AttendanceStore.Builder()
+            .add("10001", "Manuel III", "Garcia", epochDay(24, 1, 5), 8 * 60, 17 * 60)
+            .add("10001", "Manuel III", "Garcia", epochDay(2024, 1, 3), 8 * 60 + 40, 17 * 60)
+            .add("10001", "Manuel III", "Garcia", epochDay(2024, 3, 4), 8 * 60, 19 * 60)
+            .add("10002", "Antonio", "Lim", epochDay(2024, 1, 3), 9 * 60, 18 * 60)
+            .build();
+        PayWeekCube cube = PayWeekCube.update(null, store, Map.of());
+
+        int garcia = store.keyOf("10001");
+        assertEquals(1, cube.rowCount(garcia, 24, 1, 1));
+        assertEquals(1, cube.rowCount(garcia, 2024, 1, 1));
+        assertEquals(0, cube.rowCount(garcia, 2024, 2, 1));
+        assertEquals(480, cube.regularMinutes(garcia, 2024, 3, 1));
+        assertEquals(180, cube.overtimeMinutes(garcia, 2024, 3, 1));
+        assertEquals(25, cube.lateMinutes(garcia, 2024, 1, 1, 8 * 60));
+        assertEquals(0, cube.rowCount(garcia, 1024, 1, 1));
+        assertEquals(1, cube.rowCount(store.keyOf("10002"), 2024, 1, 1));
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+}
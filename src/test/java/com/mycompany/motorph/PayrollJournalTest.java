@@ -0,0 +1,130 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PayrollJournalTest {
+    private static final PayrollResult GARCIA = new PayrollResult("10001", "Manuel III Garcia", 2024, 6, 2,
+        535_71L, 40.0, 2.5, 21_428_40L, 1_674_09L, 0, 23_102_49L, 281_25L, 337_50L, 25_00L, 0, 1_202_12L);
+    private static final PayrollResult LIM = new PayrollResult("10002", "Antonio Lim", 2024, 6, 2,
+        357_14L, 38.5, 0, 13_749_89L, 0, 0, 13_749_89L, 281_25L, 225_00L, 25_00L, 29_76L, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tornLastEntryIsDroppedOnReopen() throws IOException {
+        Path path = dir.resolve("run.journal");
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            journal.recordPaid(GARCIA);
+            journal.recordSkipped("10003");
+        }
+        long goodLength = Files.size(path);
+        // The JVM died halfway through writing an entry
+        Files.writeString(path, "PAID\t10002\tAntonio Li", StandardOpenOption.APPEND);
+
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            assertEquals(2, journal.getRecordedCount());
+            assertEquals(GARCIA, journal.getResult("10001"));
+            assertTrue(journal.isRecorded("10003"));
+            assertNull(journal.getResult("10003"));
+            assertFalse(journal.isRecorded("10002"));
+            journal.recordPaid(LIM);
+        }
+
+        // The torn bytes were cut off before the resume was recorded
+        assertEquals(goodLength, Files.readString(path).indexOf("RESUME"));
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            assertEquals(LIM, journal.getResult("10002"));
+        }
+    }
+
+    @Test
+    void entryFailingItsChecksumEndsTheReplay() throws IOException {
+        Path path = dir.resolve("run.journal");
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            journal.recordPaid(GARCIA);
+            journal.recordPaid(LIM);
+            journal.recordSkipped("10003");
+        }
+        // Flip a digit of Lim's gross; the entries after it cannot be trusted either
+        String content = Files.readString(path);
+        Files.writeString(path, content.replace("\t1374989\t", "\t1374980\t"));
+
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            assertEquals(1, journal.getRecordedCount());
+            assertEquals(GARCIA, journal.getResult("10001"));
+            assertFalse(journal.isRecorded("10002"));
+            assertFalse(journal.isRecorded("10003"));
+        }
+        List<String> types = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            types.add(line.substring(0, line.indexOf('\t')));
+        }
+        assertEquals(List.of("RUN", "PAID", "RESUME", "CLOSED"), types);
+    }
+
+    @Test
+    void journalOfAnotherPayWeekIsLeftAlone() throws IOException {
+        Path path = dir.resolve("run.journal");
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            journal.recordPaid(GARCIA);
+            PayrollResult otherWeek = new PayrollResult("10002", "Antonio Lim", 2024, 6, 3,
+                357_14L, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+            assertThrows(IllegalArgumentException.class, () -> journal.recordPaid(otherWeek));
+        }
+        byte[] before = Files.readAllBytes(path);
+
+        assertThrows(IllegalStateException.class, () -> PayrollJournal.open(path, 2024, 6, 3));
+        assertArrayEquals(before, Files.readAllBytes(path));
+
+        Path notJournal = dir.resolve("notes.txt");
+        Files.writeString(notJournal, "not a journal\n", StandardCharsets.UTF_8);
+        assertThrows(IllegalStateException.class, () -> PayrollJournal.open(notJournal, 2024, 6, 2));
+        assertEquals("not a journal\n", Files.readString(notJournal));
+    }
+
+    @Test
+    void resumedRunKeepsTheRecordedPayslips() throws IOException {
+        Path csv = dir.resolve("attendance.csv");
+        Files.copy(Path.of("src/main/resources/AttendanceRecord.csv"), csv);
+        AttendanceRecord.loadAttendanceFromCSV(csv.toString());
+        List<Employee> employees = EmployeeModelFromFile.getEmployeeModelList();
+        List<PayrollResult> expected = PayrollRun.run(employees, 2024, 6, 2);
+
+        // The first attempt paid Garcia with amounts that differ from a fresh computation
+        Path path = dir.resolve("run.journal");
+        PayrollResult journaled = new PayrollResult(expected.get(0).employeeID(), expected.get(0).employeeName(),
+            2024, 6, 2, 1L, 1, 0, 1L, 0, 0, 1L, 0, 0, 0, 0, 0);
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            journal.recordPaid(journaled);
+        }
+
+        List<PayrollResult> resumed;
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            resumed = PayrollRun.run(employees, journal);
+            assertEquals(employees.size(), journal.getRecordedCount());
+        }
+        assertEquals(journaled, resumed.get(0));
+        assertEquals(expected.subList(1, expected.size()), resumed.subList(1, resumed.size()));
+
+        // A second restart computes nothing and returns the same payslips
+        try (PayrollJournal journal = PayrollJournal.open(path, 2024, 6, 2)) {
+            assertEquals(resumed, PayrollRun.run(employees, journal));
+        }
+    }
+}
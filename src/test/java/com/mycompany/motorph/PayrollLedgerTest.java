@@ -0,0 +1,117 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PayrollLedgerTest {
+    private static final String HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out";
+    private static final List<Employee> EMPLOYEES = List.of(
+        employee("10001", "Garcia", "Manuel III", "535.71"),
+        employee("10002", "Lim", "Antonio", "357.14"),
+        employee("10003", "Aquino", "Bianca Sofia", "255.80"));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendedRowsOnlyRecomputeTheirEmployeesPayslips() throws IOException {
+        Path csv = dir.resolve("attendance.csv");
+        List<String> lines = new ArrayList<>(List.of(HEADER));
+        for (int day = 3; day <= 28; day++) {
+            for (Employee employee : EMPLOYEES) {
+                lines.add(row(employee, "06/%02d/2024".formatted(day), "8:%02d".formatted(day + 10), "17:30"));
+            }
+        }
+        Files.write(csv, lines);
+        AttendanceRecord.loadAttendanceFromCSV(csv.toString());
+        PayrollLedger ledger = new PayrollLedger(EMPLOYEES);
+        ledger.refresh();
+        AttendanceStore before = AttendanceRecord.getAttendanceStore();
+
+        // A late clock-in in an existing week and the first rows of a new month
+        Files.write(csv, List.of(
+            row(EMPLOYEES.get(0), "06/15/2024", "9:45", "18:00"),
+            row(EMPLOYEES.get(0), "07/01/2024", "8:00", "17:00"),
+            row(EMPLOYEES.get(0), "07/02/2024", "8:30", "20:00")), StandardOpenOption.APPEND);
+        AttendanceRecord.refreshAttendanceFromCSV(csv.toString());
+        AttendanceStore after = AttendanceRecord.getAttendanceStore();
+        PayrollDelta delta = ledger.refresh();
+
+        assertTrue(after.sharesRows(after.keyOf("10002"), before, before.keyOf("10002")));
+        assertTrue(after.sharesRows(after.keyOf("10003"), before, before.keyOf("10003")));
+        assertEquals(List.of("10001"), after.changedDaysSince(before).keySet().stream().toList());
+        assertTrue(delta.changes().stream().allMatch(change -> "10001".equals(change.current().employeeID())));
+        assertNotNull(ledger.getPayslip("10001", 2024, 7, 1));
+        assertMatchesFreshLedger(ledger);
+    }
+
+    @Test
+    void rewrittenFileMatchesAFullRecompute() throws IOException {
+        Path csv = dir.resolve("rewritten.csv");
+        List<String> lines = new ArrayList<>(List.of(HEADER));
+        for (int day = 3; day <= 14; day++) {
+            for (Employee employee : EMPLOYEES) {
+                lines.add(row(employee, "06/%02d/2024".formatted(day), "8:05", "17:%02d".formatted(day * 4)));
+            }
+        }
+        Files.write(csv, lines);
+        AttendanceRecord.loadAttendanceFromCSV(csv.toString());
+        PayrollLedger ledger = new PayrollLedger(EMPLOYEES);
+        ledger.refresh();
+
+        // Correct one row and drop another
+        lines.set(5, row(EMPLOYEES.get(1), "06/04/2024", "10:20", "19:00"));
+        lines.remove(9);
+        Files.write(csv, lines);
+        AttendanceRecord.refreshAttendanceFromCSV(csv.toString());
+        PayrollDelta delta = ledger.refresh();
+
+        assertFalse(delta.changes().isEmpty());
+        assertMatchesFreshLedger(ledger);
+    }
+
+    // A new ledger computes every payslip from a cube built in full
+    private static void assertMatchesFreshLedger(PayrollLedger ledger) {
+        PayrollLedger fresh = new PayrollLedger(EMPLOYEES);
+        fresh.refresh();
+        for (Employee employee : EMPLOYEES) {
+            for (int month = 6; month <= 7; month++) {
+                for (int week = 1; week <= 4; week++) {
+                    String id = employee.getEmployeeNumber();
+                    assertEquals(fresh.getPayslip(id, 2024, month, week), ledger.getPayslip(id, 2024, month, week),
+                        id + " " + month + "/" + week);
+                }
+            }
+            assertEquals(fresh.yearToDate(employee.getEmployeeNumber(), 2024),
+                ledger.yearToDate(employee.getEmployeeNumber(), 2024));
+        }
+    }
+
+    private static String row(Employee employee, String date, String in, String out) {
+        return String.join(",", employee.getEmployeeNumber(), employee.getLastName(), employee.getFirstName(),
+            date, in, out);
+    }
+
+    private static Employee employee(String id, String lastName, String firstName, String hourlyRate) {
+        String[] data = new String[19];
+        Arrays.fill(data, "");
+        data[0] = id;
+        data[1] = lastName;
+        data[2] = firstName;
+        data[10] = "Regular";
+        data[18] = hourlyRate;
+        return new Employee(data);
+    }
+}
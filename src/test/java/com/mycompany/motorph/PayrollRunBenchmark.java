@@ -0,0 +1,80 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Batch payroll of the sample employees, repeated 300 times, for every week of
+ * June-December 2024 on one thread: one PayrollResult per employee against the reusable
+ * PayrollBuffer. Scores are per employee-week. Run from the project root after
+ * {@code mvn test-compile}, adding {@code -prof gc} for the bytes allocated per employee
+ * ({@code gc.alloc.rate.norm}):
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main PayrollRunBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(PayrollRunBenchmark.EMPLOYEE_WEEKS)
+public class PayrollRunBenchmark {
+    static final int EMPLOYEE_COPIES = 300;
+    static final int SAMPLE_EMPLOYEES = 34;
+    static final int EMPLOYEE_WEEKS = EMPLOYEE_COPIES * SAMPLE_EMPLOYEES * 7 * 4;
+
+    private final List<Employee> employees = new ArrayList<>();
+    private PayrollBuffer buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        AttendanceRecord.loadAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
+        List<Employee> sample = EmployeeModelFromFile.getEmployeeModelList();
+        if (sample.size() != SAMPLE_EMPLOYEES) {
+            throw new IllegalStateException("Expected " + SAMPLE_EMPLOYEES + " sample employees, found " + sample.size());
+        }
+        for (int i = 0; i < EMPLOYEE_COPIES; i++) {
+            employees.addAll(sample);
+        }
+        buffer = new PayrollBuffer(employees.size());
+    }
+
+    @Benchmark
+    public void resultObjects(Blackhole blackhole) {
+        for (int month = 6; month <= 12; month++) {
+            for (int week = 1; week <= 4; week++) {
+                for (PayrollResult result : PayrollRun.run(employees, 2024, month, week)) {
+                    blackhole.consume(result.netWage());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void buffer(Blackhole blackhole) {
+        for (int month = 6; month <= 12; month++) {
+            for (int week = 1; week <= 4; week++) {
+                PayrollRun.run(employees, 2024, month, week, buffer);
+                for (int slot = 0; slot < employees.size(); slot++) {
+                    blackhole.consume(buffer.netWage(slot));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Batch payroll of the sample employees, repeated 300 times, for every week of
+ * June-December 2024 at several thread counts. Scores are per employee-week; compare them
+ * against the number of processors of the machine. Run from the project root after
+ * {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main PayrollThreadsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(PayrollRunBenchmark.EMPLOYEE_WEEKS)
+public class PayrollThreadsBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private final List<Employee> employees = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        AttendanceRecord.loadAttendanceFromCSV("src/main/resources/AttendanceRecord.csv");
+        List<Employee> sample = EmployeeModelFromFile.getEmployeeModelList();
+        if (sample.size() != PayrollRunBenchmark.SAMPLE_EMPLOYEES) {
+            throw new IllegalStateException("Expected " + PayrollRunBenchmark.SAMPLE_EMPLOYEES
+                + " sample employees, found " + sample.size());
+        }
+        for (int i = 0; i < PayrollRunBenchmark.EMPLOYEE_COPIES; i++) {
+            employees.addAll(sample);
+        }
+    }
+
+    @Benchmark
+    public void run(Blackhole blackhole) {
+        for (int month = 6; month <= 12; month++) {
+            for (int week = 1; week <= 4; week++) {
+                for (PayrollResult result : PayrollRun.run(employees, 2024, month, week, threads)) {
+                    blackhole.consume(result.netWage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PeriodPayTest {
+    private static final Employee EMPLOYEE = employee("10001", "Garcia", "Manuel III", "535.71");
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void loadAttendance() throws IOException {
+        List<String> lines = new ArrayList<>(List.of("Employee #,Last Name,First Name,Date,Log In,Log Out"));
+        for (LocalDate date = LocalDate.of(2024, 6, 3); date.isBefore(LocalDate.of(2024, 8, 1)); date = date.plusDays(1)) {
+            lines.add("10001,Garcia,Manuel III,%02d/%02d/%d,8:%02d,%d:30".formatted(date.getMonthValue(),
+                date.getDayOfMonth(), date.getYear(), date.getDayOfMonth(), 17 + date.getDayOfMonth() % 3));
+        }
+        // A mistyped year must not disturb the other periods
+        lines.add("10001,Garcia,Manuel III,06/12/0024,8:00,17:00");
+        Path csv = dir.resolve("attendance.csv");
+        Files.write(csv, lines);
+        AttendanceRecord.loadAttendanceFromCSV(csv.toString());
+    }
+
+    @Test
+    void weeklyPayMatchesGrosswage() {
+        for (int month = 6; month <= 7; month++) {
+            for (int week = 1; week <= 4; week++) {
+                GrossResult gross = new Grosswage("10001", "Manuel III", "Garcia", 2024, month, week,
+                    EMPLOYEE.getShiftStartTime(), EMPLOYEE.isNightShift()).getResult();
+                PeriodPay pay = PeriodPay.calculate(EMPLOYEE, PayrollPeriod.weekly(2024, month, week));
+                assertEquals(gross.gross(), pay.gross(), month + "/" + week);
+                assertEquals(gross.holidayPay(), pay.holidayPay(), month + "/" + week);
+                assertEquals(gross.hoursWorked(), pay.hoursWorked(), 1e-9, month + "/" + week);
+            }
+        }
+    }
+
+    @Test
+    void halvesAddUpToTheMonth() {
+        PeriodPay first = PeriodPay.calculate(EMPLOYEE, PayrollPeriod.firstHalf(2024, 7));
+        PeriodPay second = PeriodPay.calculate(EMPLOYEE, PayrollPeriod.secondHalf(2024, 7));
+        PeriodPay month = PeriodPay.calculate(EMPLOYEE, PayrollPeriod.monthly(2024, 7));
+        assertEquals(month.gross(), first.gross() + second.gross());
+        assertEquals(month.lateDeduction(), first.lateDeduction() + second.lateDeduction());
+        assertEquals(month.hoursWorked(), first.hoursWorked() + second.hoursWorked(), 1e-9);
+    }
+
+    @Test
+    void periodsWithoutRowsAreZero() {
+        PeriodPay before = PeriodPay.calculate(EMPLOYEE, PayrollPeriod.monthly(2024, 5));
+        assertEquals(0, before.gross());
+        assertEquals(0, before.lateDeduction());
+        PeriodPay stray = PeriodPay.calculate(EMPLOYEE, PayrollPeriod.monthly(24, 6));
+        assertEquals(9.0, stray.hoursWorked(), 1e-9);
+    }
+
+    private static Employee employee(String id, String lastName, String firstName, String hourlyRate) {
+        String[] data = new String[19];
+        Arrays.fill(data, "");
+        data[0] = id;
+        data[1] = lastName;
+        data[2] = firstName;
+        data[10] = "Regular";
+        data[18] = hourlyRate;
+        return new Employee(data);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * PhilHealth and Pag-IBIG deductions of 10,000 employees: one Calculation object per
+ * deduction against the batch contributions, with and without the Vector API.
+ * Scores are per employee. Run after {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main PremiumBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(PremiumBenchmark.EMPLOYEES)
+public class PremiumBenchmark {
+    static final int EMPLOYEES = 10_000;
+
+    private final List<GrossResult> results = new ArrayList<>(EMPLOYEES);
+    private final long[] grossWages = new long[EMPLOYEES];
+    private final long[] philhealth = new long[EMPLOYEES];
+    private final long[] pagibig = new long[EMPLOYEES];
+    private StatutoryTable philhealthTable;
+    private StatutoryTable pagibigTable;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            // A quarter around the PHP 1,000-1,500 band, the rest up to above the PHP 60,000 ceiling
+            long gross = random.nextInt(4) == 0 ? 500_00L + random.nextInt(1_500_00) : random.nextInt(80_000_00);
+            results.add(new GrossResult(String.valueOf(10001 + i), "Employee " + i, 2024, 6, 2,
+                LocalTime.of(8, 0), false, 100_00L, 40, 0, gross, 0, 0, 0));
+            grossWages[i] = gross;
+        }
+        int payDay = StatutoryTables.payWeekEpochDay(2024, 6, 2);
+        philhealthTable = StatutoryTables.current().tableFor(StatutoryTables.Kind.PHILHEALTH, payDay);
+        pagibigTable = StatutoryTables.current().tableFor(StatutoryTables.Kind.PAGIBIG, payDay);
+    }
+
+    @Benchmark
+    public void deductionObjects(Blackhole blackhole) {
+        for (GrossResult result : results) {
+            blackhole.consume(new Philhealth(result).calculate());
+            blackhole.consume(new Pagibig(result).calculate());
+        }
+    }
+
+    @Benchmark
+    public void batchScalar(Blackhole blackhole) {
+        philhealthTable.amountsFor(grossWages, philhealth, EMPLOYEES, false);
+        pagibigTable.amountsFor(grossWages, pagibig, EMPLOYEES, false);
+        blackhole.consume(philhealth);
+        blackhole.consume(pagibig);
+    }
+
+    @Benchmark
+    public void batchVector(Blackhole blackhole) {
+        philhealthTable.amountsFor(grossWages, philhealth, EMPLOYEES, true);
+        pagibigTable.amountsFor(grossWages, pagibig, EMPLOYEES, true);
+        blackhole.consume(philhealth);
+        blackhole.consume(pagibig);
+    }
+}
@@ -0,0 +1,129 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class StatutoryTableTest {
+    private static final StatutoryTable PHILHEALTH = StatutoryTable.of(List.of(
+        new StatutoryTable.Bracket(StatutoryTable.NO_LOWER_BOUND, 0, 150, 0),
+        StatutoryTable.Bracket.fixed(60_000_00L, 1_800_00L)));
+
+    private static final StatutoryTable TAX = WithholdingTax.tableOf(List.of(
+        new WithholdingTax.Bracket(20_832_00L, 0, 20),
+        new WithholdingTax.Bracket(33_333_00L, 2_500_00L, 25),
+        new WithholdingTax.Bracket(66_667_00L, 10_833_00L, 30),
+        new WithholdingTax.Bracket(166_667_00L, 40_833_33L, 32),
+        new WithholdingTax.Bracket(666_667_00L, 200_833_33L, 35)));
+
+    @Test
+    void amountForAppliesTheBracketOfTheBase() {
+        assertEquals(0, TAX.amountFor(20_832_00L));
+        assertEquals(0, TAX.amountFor(-5_00L));
+        assertEquals(20, TAX.amountFor(20_833_00L));
+        assertEquals(2_500_20L, TAX.amountFor(33_333_00L));
+        assertEquals(750_00L, PHILHEALTH.amountFor(50_000_00L));
+        assertEquals(1_800_00L, PHILHEALTH.amountFor(60_000_01L));
+        // Half a centavo rounds away from zero on both sides
+        assertEquals(1, PHILHEALTH.amountFor(34));
+        assertEquals(-1, PHILHEALTH.amountFor(-34));
+    }
+
+    @Test
+    void listedBracketsMustAscend() {
+        assertThrows(IllegalArgumentException.class, () -> StatutoryTable.of(List.of(
+            StatutoryTable.Bracket.fixed(5, 1), StatutoryTable.Bracket.fixed(5, 2))));
+        assertThrows(IllegalArgumentException.class, () -> StatutoryTable.of(List.of()));
+    }
+
+    @Test
+    void batchLookupMatchesSingleLookups() {
+        Random random = new Random(42);
+        // Counts around whole vectors, so the scalar tail is covered too
+        for (int count : new int[]{0, 1, 3, 7, 8, 9, 64, 1001}) {
+            long[] bases = new long[count];
+            for (int i = 0; i < count; i++) {
+                bases[i] = switch (i % 4) {
+                    case 0 -> random.nextLong(-1_000_00L, 1_000_000_00L);
+                    case 1 -> random.nextLong(20_000_00L, 70_000_00L);
+                    case 2 -> random.nextLong(-10_000_000_000_00L, 10_000_000_000_00L);
+                    default -> 20_832_00L + random.nextInt(3) - 1;
+                };
+            }
+            for (StatutoryTable table : new StatutoryTable[]{PHILHEALTH, TAX}) {
+                long[] expected = new long[count];
+                for (int i = 0; i < count; i++) {
+                    expected[i] = table.amountFor(bases[i]);
+                }
+                for (boolean useVectors : new boolean[]{false, true}) {
+                    long[] out = new long[count];
+                    table.amountsFor(bases, out, count, useVectors);
+                    assertArrayEquals(expected, out, "vectors " + useVectors + ", count " + count);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchLookupRoundsEveryRemainderAsSingleLookups() {
+        // Consecutive bases cover every remainder of the rate division, ties included,
+        // around zero, the bracket bounds and the largest bases the vector path takes
+        long[] starts = {-100_000, 20_832_00L - 50_000, 666_667_00L - 50_000, 300_000_000_000L, -300_000_000_000L};
+        for (long start : starts) {
+            long[] bases = new long[100_003];
+            for (int i = 0; i < bases.length; i++) {
+                bases[i] = start + i;
+            }
+            for (StatutoryTable table : new StatutoryTable[]{PHILHEALTH, TAX}) {
+                long[] expected = new long[bases.length];
+                for (int i = 0; i < bases.length; i++) {
+                    expected[i] = table.amountFor(bases[i]);
+                }
+                long[] out = new long[bases.length];
+                table.amountsFor(bases, out, bases.length, true);
+                assertArrayEquals(expected, out, "from " + start);
+            }
+        }
+    }
+
+    @Test
+    void batchLookupMatchesSingleLookupsBeyondTheVectorLimit() {
+        // Beyond the limit, but within what the scalar path computes without overflow
+        long[] bases = {Long.MAX_VALUE, -20_000_000_000_000_000L, Long.MAX_VALUE / 100_000, 5, -5, 60_000_00L, 1, 2};
+        long[] expected = new long[bases.length];
+        for (int i = 0; i < bases.length; i++) {
+            expected[i] = PHILHEALTH.amountFor(bases[i]);
+        }
+        long[] out = new long[bases.length];
+        PHILHEALTH.amountsFor(bases, out, bases.length, true);
+        assertArrayEquals(expected, out);
+
+        // The first bracket's rate applies to any base, so a huge base overflows either way
+        long[] overflowing = {1, 2, 3, Long.MAX_VALUE / 100, 5, 6, 7, 8};
+        StatutoryTable uncapped = StatutoryTable.of(List.of(
+            new StatutoryTable.Bracket(StatutoryTable.NO_LOWER_BOUND, 0, 10_000, 0)));
+        assertThrows(ArithmeticException.class, () -> uncapped.amountFor(Long.MAX_VALUE / 100));
+        assertThrows(ArithmeticException.class,
+            () -> uncapped.amountsFor(overflowing, new long[8], 8, true));
+        assertThrows(ArithmeticException.class,
+            () -> uncapped.amountsFor(overflowing, new long[8], 8, false));
+    }
+
+    @Test
+    void batchLookupRejectsCountsBeyondTheArrays() {
+        assertThrows(IllegalArgumentException.class, () -> TAX.amountsFor(new long[2], new long[3], 3));
+        assertThrows(IllegalArgumentException.class, () -> TAX.amountsFor(new long[3], new long[2], 3));
+        assertThrows(IllegalArgumentException.class, () -> TAX.amountsFor(new long[3], new long[3], -1));
+    }
+
+    @Test
+    void testsRunWithTheVectorApi() {
+        // Surefire adds the module, so the batch tests above cover the vector path
+        assertTrue(StatutoryTable.VECTOR_API);
+    }
+}
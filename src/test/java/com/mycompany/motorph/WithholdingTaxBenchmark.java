@@ -0,0 +1,107 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Withholding tax of 1,000,000 taxable incomes spread over every bracket: the bracket
+ * scan WithholdingTax used before against the compiled tax table, one income per call and
+ * in batches with and without the Vector API. Scores are per income. Run after
+ * {@code mvn test-compile} with
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main WithholdingTaxBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(WithholdingTaxBenchmark.INCOMES)
+public class WithholdingTaxBenchmark {
+    static final int INCOMES = 1_000_000;
+
+    // Brackets as the if chain previously used by WithholdingTax: over, base, percent
+    private static final long[][] BRACKETS = {
+        {20_832_00L, 0, 20},
+        {33_333_00L, 2_500_00L, 25},
+        {66_667_00L, 10_833_00L, 30},
+        {166_667_00L, 40_833_33L, 32},
+        {666_667_00L, 200_833_33L, 35}
+    };
+
+    private final long[] incomes = new long[INCOMES];
+    private final long[] taxes = new long[INCOMES];
+    private int payDay;
+    private StatutoryTable table;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < INCOMES; i++) {
+            // Skewed towards the lower brackets, as weekly taxable incomes are
+            incomes[i] = (long) (random.nextDouble() * random.nextDouble() * 800_000_00L);
+        }
+        payDay = (int) LocalDate.of(2024, 6, 1).toEpochDay();
+        table = StatutoryTables.current().tableFor(StatutoryTables.Kind.WITHHOLDING_TAX, payDay);
+    }
+
+    @Benchmark
+    public long bracketScan() {
+        long sum = 0;
+        for (long income : incomes) {
+            sum += bracketTax(income);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long tablePerIncome() {
+        long sum = 0;
+        for (long income : incomes) {
+            sum += table.amountFor(income);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long[] tableBatchScalar() {
+        table.amountsFor(incomes, taxes, INCOMES, false);
+        return taxes;
+    }
+
+    @Benchmark
+    public long[] tableBatchVector() {
+        table.amountsFor(incomes, taxes, INCOMES, true);
+        return taxes;
+    }
+
+    @Benchmark
+    public long[] annualizedWeeklyBatch() {
+        WithholdingTax.taxesFor(incomes, taxes, INCOMES, WithholdingTax.PayFrequency.WEEKLY, payDay);
+        return taxes;
+    }
+
+    private static long bracketTax(long taxableIncome) {
+        for (int i = BRACKETS.length - 1; i >= 0; i--) {
+            long[] bracket = BRACKETS[i];
+            if (taxableIncome > bracket[0]) {
+                return bracket[1] + Money.percentOf(taxableIncome - bracket[0], bracket[2]);
+            }
+        }
+        return 0;
+    }
+}